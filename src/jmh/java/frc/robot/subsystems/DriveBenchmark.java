@@ -0,0 +1,64 @@
+package frc.robot.subsystems;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import frc.robot.constants.DriveConstants;
+import frc.robot.utils.SwerveDriveController;
+import frc.robot.utils.SwerveOptimizer;
+import frc.robot.utils.RangeMath.CurveFit;
+
+/**
+ * The math of one teleop {@link DriveSub#drive} call, from the stick values
+ * to the module setpoints.
+ *
+ * DriveSub itself needs the motors and IMU, so this runs the same
+ * {@link SwerveDriveController} with a fixed heading and loop period in place
+ * of the hardware reads. The sticks alternate between two directions so the
+ * setpoint generator always has limits to work out. The call allocates
+ * nothing, gc.alloc.rate.norm from the gc profiler should read 0.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DriveBenchmark {
+  private static final double LOOP_PERIOD = 0.02;
+
+  private final SwerveDriveController driveController = new SwerveDriveController();
+  private final SwerveOptimizer[] optimizers = {
+      new SwerveOptimizer(), new SwerveOptimizer(), new SwerveOptimizer(), new SwerveOptimizer() };
+
+  private final double[][] sticks = { { 0.6, -0.3, 0.4, 1 }, { -0.5, 0.4, -0.2, 1 } };
+  private int stick = 0;
+  private final double[] control = new double[4];
+  private final double[] speeds = new double[4];
+  private final double[] angles = new double[4];
+  private final double[] currentAngles = { 0.1, 0.2, -0.3, 1.5 };
+  private double time = 0;
+
+  private final double headingCos = Math.cos(Math.toRadians(37));
+  private final double headingSin = Math.sin(Math.toRadians(37));
+
+  @Benchmark
+  public void teleopDrive(Blackhole bh) {
+    stick = 1 - stick;
+    System.arraycopy(sticks[stick], 0, control, 0, 4);
+    CurveFit.fitDrive(control, DriveConstants.PILOT_SETTINGS);
+
+    time += LOOP_PERIOD;
+    driveController.drive(control[0], control[1], control[2], true, true,
+        headingCos, headingSin, 0, 0, 0, time, speeds, angles);
+
+    for (int i = 0; i < 4; i++) {
+      bh.consume(optimizers[i].optimize(angles[i], currentAngles[i]));
+    }
+    bh.consume(speeds);
+  }
+}
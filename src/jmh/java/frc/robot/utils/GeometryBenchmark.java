@@ -0,0 +1,79 @@
+package frc.robot.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Twist2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/** Primitive {@link GeometryUtils} against the WPILib geometry classes it replaces. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeometryBenchmark {
+  // not final so the JIT cannot fold the calls into constants
+  private double angleA = 2.9;
+  private double angleB = -3.0;
+  private double vx = 1.2;
+  private double vy = -0.4;
+  private double heading = 0.8;
+  private double headingCos = Math.cos(0.8);
+  private double headingSin = Math.sin(0.8);
+
+  private final Pose2d pose = new Pose2d(1, 2, new Rotation2d(0.7));
+  private final Twist2d twist = new Twist2d(0.03, -0.01, 0.04);
+  private final double[] primitivePose = { 1, 2, 0.7 };
+  private final double[] poseOut = new double[3];
+  private final double[] speedsOut = new double[2];
+
+  @Benchmark
+  public double wpilibWrap() {
+    return MathUtil.angleModulus(angleA + angleB + 2 * Math.PI);
+  }
+
+  @Benchmark
+  public double primitiveWrap() {
+    return GeometryUtils.wrap(angleA + angleB + 2 * Math.PI);
+  }
+
+  @Benchmark
+  public double wpilibDifference() {
+    return new Rotation2d(angleA).minus(new Rotation2d(angleB)).getRadians();
+  }
+
+  @Benchmark
+  public double primitiveDifference() {
+    return GeometryUtils.difference(angleA, angleB);
+  }
+
+  @Benchmark
+  public ChassisSpeeds wpilibFieldRelative() {
+    return ChassisSpeeds.fromFieldRelativeSpeeds(vx, vy, 0, new Rotation2d(heading));
+  }
+
+  @Benchmark
+  public double[] primitiveFieldRelative() {
+    GeometryUtils.rotate(vx, vy, headingCos, -headingSin, speedsOut);
+    return speedsOut;
+  }
+
+  @Benchmark
+  public Pose2d wpilibExp() {
+    return pose.exp(twist);
+  }
+
+  @Benchmark
+  public double[] primitiveExp() {
+    GeometryUtils.exp(primitivePose, twist.dx, twist.dy, twist.dtheta, poseOut);
+    return poseOut;
+  }
+}
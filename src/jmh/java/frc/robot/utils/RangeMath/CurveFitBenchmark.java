@@ -0,0 +1,28 @@
+package frc.robot.utils.RangeMath;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.constants.DriveConstants;
+
+/** The pilot's stick shaping, run once per teleop loop. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CurveFitBenchmark {
+  private final double[] sticks = { 0.6, -0.3, 0.4, 1 };
+  private final double[] control = new double[4];
+
+  @Benchmark
+  public double[] fitDrive() {
+    // fitDrive works in place, so start from the same sticks each call
+    System.arraycopy(sticks, 0, control, 0, 4);
+    return CurveFit.fitDrive(control, DriveConstants.PILOT_SETTINGS);
+  }
+}
@@ -0,0 +1,71 @@
+package frc.robot.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.constants.DriveConstants;
+
+/** Closed-form {@link SwerveKinematics} against WPILib's matrix based kinematics. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SwerveKinematicsBenchmark {
+  private final SwerveDriveKinematics wpilib = new SwerveDriveKinematics(
+      DriveConstants.FRONT_LEFT_MODULE_TRANSLATION,
+      DriveConstants.FRONT_RIGHT_MODULE_TRANSLATION,
+      DriveConstants.BACK_LEFT_MODULE_TRANSLATION,
+      DriveConstants.BACK_RIGHT_MODULE_TRANSLATION);
+  private final SwerveKinematics closedForm = new SwerveKinematics(
+      DriveConstants.FRONT_LEFT_MODULE_TRANSLATION,
+      DriveConstants.FRONT_RIGHT_MODULE_TRANSLATION,
+      DriveConstants.BACK_LEFT_MODULE_TRANSLATION,
+      DriveConstants.BACK_RIGHT_MODULE_TRANSLATION);
+
+  private final ChassisSpeeds chassis = new ChassisSpeeds(1.2, -0.4, 2.1);
+  private final SwerveModuleState[] states = wpilib.toSwerveModuleStates(chassis);
+
+  private final double[] speeds = new double[4];
+  private final double[] angles = new double[4];
+  private final double[] result = new double[3];
+
+  @Benchmark
+  public void wpilibToModuleStates(Blackhole bh) {
+    final SwerveModuleState[] out = wpilib.toSwerveModuleStates(chassis);
+    SwerveDriveKinematics.desaturateWheelSpeeds(out, DriveConstants.MAX_SPEED);
+    bh.consume(out);
+  }
+
+  @Benchmark
+  public void closedFormToModuleStates(Blackhole bh) {
+    closedForm.toModuleStates(chassis.vxMetersPerSecond, chassis.vyMetersPerSecond,
+        chassis.omegaRadiansPerSecond, speeds, angles);
+    SwerveKinematics.desaturate(speeds, DriveConstants.MAX_SPEED);
+    bh.consume(speeds);
+    bh.consume(angles);
+  }
+
+  @Benchmark
+  public ChassisSpeeds wpilibToChassisSpeeds() {
+    return wpilib.toChassisSpeeds(states);
+  }
+
+  @Benchmark
+  public double[] closedFormToChassisSpeeds() {
+    for (int i = 0; i < 4; i++) {
+      speeds[i] = states[i].speedMetersPerSecond;
+      angles[i] = states[i].angle.getRadians();
+    }
+    closedForm.toChassisSpeeds(speeds, angles, result);
+    return result;
+  }
+}
@@ -0,0 +1,45 @@
+package frc.robot.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** Angle helpers used by the drive rate limiting and each module setpoint. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SwerveUtilsBenchmark {
+  private final SwerveOptimizer optimizer = new SwerveOptimizer();
+
+  // not final so the JIT cannot fold the calls into constants
+  private double current = 0.3;
+  private double target = 5.9;
+  private double step = 0.05;
+  private double desiredAngle = 2.4;
+  private double currentAngle = -0.2;
+
+  @Benchmark
+  public double stepTowardsCircular() {
+    return SwerveUtils.StepTowardsCircular(current, target, step);
+  }
+
+  @Benchmark
+  public double angleDifference() {
+    return SwerveUtils.AngleDifference(current, target);
+  }
+
+  @Benchmark
+  public double wrapAngle() {
+    return SwerveUtils.WrapAngle(target + 4 * Math.PI);
+  }
+
+  @Benchmark
+  public boolean optimize() {
+    return optimizer.optimize(desiredAngle, currentAngle);
+  }
+}
@@ -0,0 +1,60 @@
+package frc.robot.utils.logger;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import frc.robot.constants.LoggerConstants;
+
+/**
+ * The work {@link Logger#log} does on the robot loop, the policy check and the
+ * copy into the ring, plus the writer thread's copy back out.
+ *
+ * A Logger itself is not used, off the robot it finds no USB drive and stops
+ * itself, so every log call would return straight away.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggerBenchmark {
+  private static final double LOOP_PERIOD = 0.02;
+
+  private final LogBuffer buffer = new LogBuffer(LoggerConstants.BUFFER_ROWS, 5);
+  private final LogPolicy swervePolicy = new LogPolicy()
+      .withRate(LoggerConstants.SWERVE_LOG_RATE)
+      .withDeadband(LoggerConstants.SWERVE_LOG_DEADBAND)
+      .withHeartbeat(LoggerConstants.SWERVE_LOG_HEARTBEAT);
+  private final LogPolicy stillPolicy = new LogPolicy()
+      .withRate(LoggerConstants.SWERVE_LOG_RATE)
+      .withDeadband(LoggerConstants.SWERVE_LOG_DEADBAND)
+      .withHeartbeat(LoggerConstants.SWERVE_LOG_HEARTBEAT);
+
+  private final double[] values = { 1.5, 2.3, 45, 120 };
+  private final double[] stillValues = { 1.5, 2.3, 45, 120 };
+  private final double[] row = new double[5];
+  private double time = 0;
+  private double stillTime = 0;
+
+  /** a moving module, every row is kept and queued then drained */
+  @Benchmark
+  public boolean logMoving() {
+    time += LOOP_PERIOD;
+    values[0] += 0.05;
+    if (swervePolicy.accept(time, values)) {
+      buffer.offer(time, values);
+    }
+    return buffer.poll(row);
+  }
+
+  /** a still module, rows are dropped by the deadband until the heartbeat */
+  @Benchmark
+  public boolean logStill() {
+    stillTime += LOOP_PERIOD;
+    return stillPolicy.accept(stillTime, stillValues);
+  }
+}
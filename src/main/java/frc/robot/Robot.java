@@ -4,12 +4,20 @@
 
 package frc.robot;
 
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 //import frc.robot.commands.RainbowLEDCommand;
 import frc.robot.shufflecontrol.ShuffleControl;
+import frc.robot.constants.LoggerConstants;
+import frc.robot.utils.CANProfile;
+import frc.robot.utils.ConsoleLog;
+import frc.robot.utils.logger.EventLog;
+import frc.robot.utils.logger.LogPolicy;
 import frc.robot.utils.logger.Logger;
+import frc.robot.utils.profiler.FlightRecorder;
+import frc.robot.utils.profiler.LoopProfiler;
 
 /**
  * The VM is configured to automatically run this class, and to call the
@@ -21,6 +29,14 @@ import frc.robot.utils.logger.Logger;
  * project.
  */
 public class Robot extends TimedRobot {
+  private static final EventLog.Event DISABLED = EventLog.register("Disabled");
+  private static final EventLog.Event AUTO_START = EventLog.register("Auto Start");
+  private static final EventLog.Event TELEOP_START = EventLog.register("Teleop Start");
+  private static final EventLog.Event TEST_START = EventLog.register("Test Start");
+
+  private static final ConsoleLog.Source console = ConsoleLog.source("Robot", 0);
+  private static final LoopProfiler.Section schedulerProfile = LoopProfiler.section("CommandScheduler");
+
   private Command autoCommand;
   private RobotContainer robotContainer;
 
@@ -37,6 +53,8 @@ public class Robot extends TimedRobot {
     robotContainer = new RobotContainer();
     // LEDControl.getInstance().runDirectionLights();
     new ShuffleControl();
+    // after RobotContainer so every trigger is bound before the profiler's mark
+    LoopProfiler.bindCommands();
   }
 
   /**
@@ -60,14 +78,32 @@ public class Robot extends TimedRobot {
     // robot's periodic
     // block in order for anything in the Command-based framework to work.
     // LEDControl.getInstance().updatePeriodic();
+    // sensors are read once here so everything in the scheduler sees the same values
+    RobotSnapshot.update();
+    schedulerProfile.start();
     CommandScheduler.getInstance().run();
+    schedulerProfile.stop();
+    LoopProfiler.periodic();
+    CANProfile.periodic();
+    // the rest of the loop is dashboard updates and the NetworkTables flush
+    FlightRecorder.frameworkStart();
+  }
+
+  /** Wraps each robot loop in the flight recorder, which saves overrunning loops. */
+  @Override
+  protected void loopFunc() {
+    FlightRecorder.loopStart();
+    super.loopFunc();
+    FlightRecorder.loopEnd();
   }
 
   /** This function is called once each time the robot enters Disabled mode. */
   @Override
   public void disabledInit() {
+    DISABLED.record(DriverStation.getMatchTime());
+    // the event and CAN loggers are always on and keep logging while disabled
     Logger.pauseAllLoggers();
-    System.out.println("Disabled ----------------------------------------------------------------------------------------");
+    console.println("Disabled ----------------------------------------------------------------------------------------");
   }
 
   @Override
@@ -87,7 +123,9 @@ public class Robot extends TimedRobot {
       autoCommand.schedule();
     }
     Logger.unpauseAllLoggers();
-    System.out.println("Auto Start --------------------------------------------------------------------------------------");
+    AUTO_START.record(DriverStation.getMatchTime());
+    console.println("Auto Start --------------------------------------------------------------------------------------");
+    LogPolicy.burstAll(LoggerConstants.MODE_CHANGE_BURST);
     Subsystems.drive.resetIntegral();
   }
 
@@ -106,7 +144,9 @@ public class Robot extends TimedRobot {
       autoCommand.cancel();
     }
     Logger.unpauseAllLoggers();
-    System.out.println("Teleop Start ------------------------------------------------------------------------------------");
+    TELEOP_START.record(DriverStation.getMatchTime());
+    console.println("Teleop Start ------------------------------------------------------------------------------------");
+    LogPolicy.burstAll(LoggerConstants.MODE_CHANGE_BURST);
     Subsystems.drive.resetIntegral();
   }
 
@@ -120,7 +160,9 @@ public class Robot extends TimedRobot {
     // Cancels all running commands at the start of test mode.
     CommandScheduler.getInstance().cancelAll();
     Logger.unpauseAllLoggers();
-    System.out.println("Test Start --------------------------------------------------------------------------------------");
+    TEST_START.record(DriverStation.getMatchTime());
+    console.println("Test Start --------------------------------------------------------------------------------------");
+    LogPolicy.burstAll(LoggerConstants.MODE_CHANGE_BURST);
   }
 
   /** This function is called periodically during test mode. */
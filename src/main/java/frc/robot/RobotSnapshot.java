@@ -0,0 +1,98 @@
+package frc.robot;
+
+import frc.robot.utils.RobotClock;
+
+/**
+ * RobotSnapshot - the sensors every loop shares, read once at the start of
+ * the loop.
+ *
+ * {@link Robot} calls {@link #update()} before the command scheduler runs, so
+ * every trigger, command and subsystem periodic in that loop sees the same
+ * values without reading the hardware again. The values are kept in reused
+ * primitive fields and can only be read from outside, so nothing is
+ * allocated and no consumer can change what another one sees.
+ *
+ * Only use it from the robot loop thread. Code on other threads, like the
+ * odometry thread, reads its own sensors.
+ */
+public final class RobotSnapshot {
+  private static final int MODULES = 4;
+
+  private static double timestamp = 0;
+  private static double heading = 0;
+  private static double headingCos = 1;
+  private static double headingSin = 0;
+  private static final double[] moduleSpeeds = new double[MODULES];
+  private static final double[] moduleAngles = new double[MODULES];
+  /** robot relative vx, vy and omega */
+  private static final double[] chassisSpeeds = new double[3];
+  private static boolean notePresent = false;
+
+  private RobotSnapshot() {
+  }
+
+  /** Reads the sensors, called by {@link Robot} at the start of each loop. */
+  static void update() {
+    timestamp = RobotClock.now();
+    heading = Subsystems.drive.readHeading();
+    headingCos = Math.cos(heading);
+    headingSin = Math.sin(heading);
+    Subsystems.drive.readModuleStates(moduleSpeeds, moduleAngles, chassisSpeeds);
+    notePresent = Subsystems.intake.readNoteSensor();
+  }
+
+  /** @return robot clock time the sensors were read, in seconds */
+  public static double getTimestamp() {
+    return timestamp;
+  }
+
+  /** @return robot heading in radians, counterclockwise positive, not wrapped */
+  public static double getHeading() {
+    return heading;
+  }
+
+  /** @return cosine of the heading, worked out once per loop */
+  public static double getHeadingCos() {
+    return headingCos;
+  }
+
+  /** @return sine of the heading, worked out once per loop */
+  public static double getHeadingSin() {
+    return headingSin;
+  }
+
+  /** @return measured speed of a module in m/s, in the order front left, front right, back left, back right */
+  public static double getModuleSpeed(int module) {
+    return moduleSpeeds[module];
+  }
+
+  /** @return measured angle of a module in radians, in the same order as the speeds */
+  public static double getModuleAngle(int module) {
+    return moduleAngles[module];
+  }
+
+  /** @return robot relative forward speed in m/s */
+  public static double getVx() {
+    return chassisSpeeds[0];
+  }
+
+  /** @return robot relative left speed in m/s */
+  public static double getVy() {
+    return chassisSpeeds[1];
+  }
+
+  /** @return counterclockwise rotation speed in rad/s */
+  public static double getOmega() {
+    return chassisSpeeds[2];
+  }
+
+  /** @return robot translation speed in m/s */
+  public static double getSpeed() {
+    return Math.hypot(chassisSpeeds[0], chassisSpeeds[1]);
+  }
+
+  /** @return true if the intake beam break sees a note */
+  public static boolean isNotePresent() {
+    return notePresent;
+  }
+}
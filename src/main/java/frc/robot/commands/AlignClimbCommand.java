@@ -16,8 +16,13 @@ import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import frc.robot.Subsystems;
 import frc.robot.constants.DriveConstants;
+import frc.robot.utils.ConsoleLog;
+import frc.robot.utils.logger.EventLog;
 
 public class AlignClimbCommand extends InstantCommand {
+  private static final EventLog.Event TRAJECTORY_FAILED = EventLog.register("Align Climb Trajectory Failed");
+  private static final ConsoleLog.Source console = ConsoleLog.source("AlignClimbCommand");
+
   private static final Pose2d[] RED_CLIMB_POSES = new Pose2d[] {
       new Pose2d(10, 4, Rotation2d.fromDegrees(0)),
       new Pose2d(12.5, 5.2, Rotation2d.fromDegrees(-120)),
@@ -58,7 +63,8 @@ public class AlignClimbCommand extends InstantCommand {
                 0, 0)
             .onlyWhile(continueCondition).schedule();
       } catch (TrajectoryGenerationException e) {
-        System.out.println("AlignClimbCommand : Trajectory Generation Failed!");
+        TRAJECTORY_FAILED.record(targetPose.getX(), targetPose.getY(), targetPose.getRotation().getDegrees());
+        console.println("Trajectory Generation Failed!");
       }
     });
   }
@@ -41,7 +41,6 @@ public class DriveForDistanceCommand extends InstantCommand {
 
   @Override
   public boolean isFinished() {
-    System.out.println(Math.abs(Subsystems.drive.estimateDist() - this.startP) > this.dist);
     return (Math.abs(Subsystems.drive.estimateDist() - this.startP)) > this.dist;
   }
   
@@ -0,0 +1,33 @@
+package frc.robot.constants;
+
+public class CANConstants {
+  // Output gating, changes smaller than these are not sent until the keep-alive
+  /**
+   * longest time in seconds between writes of an unchanged motor output, longer
+   * than the 0.1 s MotorSafety expiration, so motors with safety enabled are
+   * fed when a write is skipped
+   */
+  public static final double OUTPUT_KEEP_ALIVE = 0.25;
+  /** smallest percent output change written straight away */
+  public static final double PERCENT_OUTPUT_THRESHOLD = 0.005;
+  /** smallest swerve drive velocity change written straight away, in m/s */
+  public static final double DRIVE_VELOCITY_THRESHOLD = 0.01;
+  /** smallest swerve turn angle change written straight away, in radians */
+  public static final double TURN_ANGLE_THRESHOLD = 0.005;
+
+  // Status frames, see CANProfile
+  /** SPARK MAX status 0 (faults and applied output) period in ms, default is 10 */
+  public static final int SPARK_STATUS0_PERIOD_MS = 20;
+  /** period in ms of SPARK MAX frames nobody reads, the slowest allowed */
+  public static final int SPARK_UNUSED_PERIOD_MS = 65535;
+  /** swerve turn absolute encoder frame period in ms, default is 200 */
+  public static final int TURN_STATUS_PERIOD_MS = 10;
+  /** period in ms of Phoenix 5 frames that are read */
+  public static final int PHOENIX5_STATUS_PERIOD_MS = 10;
+  /** period in ms of Phoenix 5 frames nobody reads, the slowest allowed */
+  public static final int PHOENIX5_UNUSED_PERIOD_MS = 255;
+  /** seconds between checks for devices that reset and lost their frame rates */
+  public static final double RESET_CHECK_PERIOD = 1;
+  /** rate in Hz that CAN bus load is logged */
+  public static final double CAN_REPORT_RATE = 10;
+}
@@ -33,12 +33,13 @@ public class DriveConstants {
   /** Max angular acceleration of robot in radians per second squared */
   public static final double MAX_ANGULAR_ACCELERATION = MAX_ANGULAR_SPEED / 60;
 
-  /** Direction slew rate in radians per second */
-  public static final double DIRECTION_SLEW_RATE = 1.2;
-  /** Magnitude slew rate in percent per second (1 = 100%) */
-  public static final double MAGNITUDE_SLEW_RATE = 1.8;
-  /** Rotational slew rate in percent per second (1 = 100%) */
-  public static final double ROTATIONAL_SLEW_RATE = 8.0;
+  // Rate limited driving, see SwerveSetpointGenerator
+  /** Max change in a module's wheel speed in meters per second squared, about what the tyres grip */
+  public static final double MAX_MODULE_ACCELERATION = 10; // TODO check this
+  /** Max module steering speed in radians per second, a little under the NEO 550's free speed through the module */
+  public static final double MAX_STEER_VELOCITY = 20; // TODO check this
+  /** Time in seconds without driving after which the setpoint restarts from the measured speeds */
+  public static final double SETPOINT_RESET_PERIOD = 0.1;
 
   /** Gear ratio of the MAX Swerve Module driving motor */
   public static final double DRIVE_GEAR_RATIO = 4.71;
@@ -194,6 +195,16 @@ public class DriveConstants {
   public static final double DRIVEBASE_RADIUS = Math.sqrt(Math.pow(WHEEL_BASE / 2, 2) + Math.pow(TRACK_WIDTH / 2, 2));
 
   public static final double updateShuffleInterval = 0.1 / 0.02; /* (x / 20ms) */
+  /** Rate the odometry thread samples the modules and gyro, in Hz */
+  public static final double ODOMETRY_FREQUENCY = 250;
+  /**
+   * Longest the odometry thread waits for new drive motor signals, in seconds.
+   * Kept under the odometry period so a slow bus cycle cannot overrun the
+   * thread, the latest values received are used instead.
+   */
+  public static final double ODOMETRY_SIGNAL_TIMEOUT = 0.5 / ODOMETRY_FREQUENCY;
+  /** Odometry samples kept for looking up past poses, about 2 seconds */
+  public static final int POSE_HISTORY_SIZE = 512;
 
   /**
    * Auto angular speed and acceleration constraints in radians per second and
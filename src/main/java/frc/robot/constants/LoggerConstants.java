@@ -9,4 +9,41 @@ public class LoggerConstants {
   public static final int REPEAT_LIMIT_AUTO_READ = 10;
   /** save attempts per second for the logger */
   public static final int SAVE_RATE = 10;
+  /** save attempts per second for the logger when caches are filling up */
+  public static final int MAX_SAVE_RATE = 50;
+  /** cache fill fraction (0-1) at which the logger saves at MAX_SAVE_RATE */
+  public static final double MAX_SAVE_RATE_FILL = 0.25;
+  /** rows each logger can hold between saves before new rows are dropped */
+  public static final int BUFFER_ROWS = 1024;
+  /** write logs in the binary format (.bin) instead of csv, convert with ./gradlew logToCsv */
+  public static final boolean BINARY_LOG = true;
+  /** write binary logs into preallocated memory-mapped segments that survive brownouts */
+  public static final boolean SEGMENTED_LOG = true;
+  /** size of each preallocated log segment in bytes */
+  public static final int SEGMENT_BYTES = 4 * 1024 * 1024;
+  /** seconds between forcing segment logs to disk and moving their watermark */
+  public static final double COMMIT_PERIOD = 1;
+  /** frames between entries of the sparse time index kept next to binary logs */
+  public static final int INDEX_INTERVAL = 64;
+  /** size of the reused buffer each binary log is written through */
+  public static final int WRITE_BUFFER_BYTES = 16 * 1024;
+  /** size of the buffer used when reading binary logs back, must hold the largest header entry */
+  public static final int READ_BUFFER_BYTES = 64 * 1024 + 16;
+
+  /** max rows per second kept by each swerve module logger */
+  public static final double SWERVE_LOG_RATE = 50;
+  /** change needed to log a swerve module row [pos rot, vel rps, ang deg, ang rate deg/s] */
+  public static final double[] SWERVE_LOG_DEADBAND = { 0.01, 0.05, 0.5, 5 };
+  /** seconds after which a swerve module row is logged even if nothing changed */
+  public static final double SWERVE_LOG_HEARTBEAT = 1;
+  /** number of payload values carried by each event in the event log */
+  public static final int EVENT_PAYLOAD_SIZE = 3;
+  /** seconds of full detail logging after the robot changes mode */
+  public static final double MODE_CHANGE_BURST = 2;
+  /** messages that can wait to be printed to the console before new ones are dropped */
+  public static final int CONSOLE_QUEUE_SIZE = 256;
+  /** default seconds between console messages from one source */
+  public static final double CONSOLE_MIN_INTERVAL = 0.5;
+  /** seconds between repeat counts of a console message that keeps coming, and of quiet before the count is printed */
+  public static final double CONSOLE_REPEAT_FLUSH = 1;
 }
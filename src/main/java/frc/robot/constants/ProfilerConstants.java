@@ -0,0 +1,18 @@
+package frc.robot.constants;
+
+public class ProfilerConstants {
+  /** width of each loop time histogram bucket, in microseconds */
+  public static final long HISTOGRAM_BUCKET_MICROS = 50;
+  /** number of loop time histogram buckets, anything longer lands in the last */
+  public static final int HISTOGRAM_BUCKETS = 400;
+  /** seconds between publishing loop time percentiles */
+  public static final double PUBLISH_PERIOD = 1;
+  /** phases kept by the flight recorder, a few seconds of loops */
+  public static final int FLIGHT_RECORDER_SIZE = 4096;
+  /** loop length in seconds that saves the flight recorder to disk */
+  public static final double OVERRUN_DUMP_THRESHOLD = 0.03;
+  /** minimum seconds between flight recorder dumps */
+  public static final double OVERRUN_DUMP_COOLDOWN = 5;
+  /** flight recorder dumps saved per session, later overruns are only logged as events */
+  public static final int MAX_OVERRUN_DUMPS = 20;
+}
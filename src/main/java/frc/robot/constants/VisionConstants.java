@@ -1,5 +1,39 @@
 package frc.robot.constants;
 
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+
 public class VisionConstants {
   public static final String PHOTON_CAMERA_NAME = "photonvision"; // TODO: Update
+  /** Rate the vision thread checks for new camera results, in Hz, above the camera frame rate */
+  public static final double POLL_FREQUENCY = 100;
+  /**
+   * Camera mount from the robot pose (the center of rotation at floor level):
+   * 0.1 meters forward, 0.5 meters up and pitched 15 degrees up. Used for pose
+   * estimation and the simulated camera.
+   */
+  public static final Transform3d ROBOT_TO_CAM = new Transform3d(
+      new Translation3d(0.1, 0, 0.5),
+      new Rotation3d(0, Math.toRadians(-15), 0)); // TODO measure on the robot
+  /** Whether camera poses are added to the pose estimate, off until ROBOT_TO_CAM is measured on the robot */
+  public static final boolean FUSE_VISION = false;
+  /** Camera poses further than this in meters from the estimate at the frame time are not used */
+  public static final double MAX_POSE_ERROR = 1;
+
+  // Pose estimate trust, as x and y standard deviations in meters and heading in radians
+  /** Standard deviations of a pose from one tag at 0 distance */
+  public static final Matrix<N3, N1> SINGLE_TAG_STD_DEVS = VecBuilder.fill(4, 4, 8); // TODO tune
+  /** Standard deviations of a pose from several tags at 0 distance */
+  public static final Matrix<N3, N1> MULTI_TAG_STD_DEVS = VecBuilder.fill(0.5, 0.5, 1); // TODO tune
+  /** Standard deviations grow by (1 + distance^2 / this), distance in meters */
+  public static final double STD_DEV_DISTANCE_SCALE = 30;
+  /** Single tag poses from further than this in meters are not used */
+  public static final double MAX_SINGLE_TAG_DISTANCE = 4;
+  /** Single tag poses with a higher ambiguity than this are not used (0 to 1) */
+  public static final double MAX_AMBIGUITY = 0.2;
 }
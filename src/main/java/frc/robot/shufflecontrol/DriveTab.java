@@ -6,7 +6,6 @@ import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.shuffleboard.ShuffleboardTab;
 import edu.wpi.first.wpilibj2.command.Subsystem;
 import frc.robot.Subsystems;
-import edu.wpi.first.math.kinematics.SwerveModuleState;
 
 import java.util.Map;
 
@@ -78,16 +77,20 @@ public class DriveTab {
     driveR.setDouble(contR);
   }
 
-  public void setWheelAxes(SwerveModuleState FL, SwerveModuleState FR, SwerveModuleState RL, SwerveModuleState RR) {
-    DriveFLT.setDouble(FL.angle.getDegrees() % 180 -90);
-    DriveFRT.setDouble(FR.angle.getDegrees() % 180 -90);
-    DriveRLT.setDouble(RL.angle.getDegrees() % 180 -90);
-    DriveRRT.setDouble(RR.angle.getDegrees() % 180 -90);
+  /**
+   * @param angles module angles in radians, in FL, FR, RL, RR order
+   * @param speeds module speeds in m/s, in the same order
+   */
+  public void setWheelAxes(double[] angles, double[] speeds) {
+    DriveFLT.setDouble(Math.toDegrees(angles[0]) % 180 -90);
+    DriveFRT.setDouble(Math.toDegrees(angles[1]) % 180 -90);
+    DriveRLT.setDouble(Math.toDegrees(angles[2]) % 180 -90);
+    DriveRRT.setDouble(Math.toDegrees(angles[3]) % 180 -90);
 
-    DriveFLD.setDouble(FL.speedMetersPerSecond);
-    DriveFRD.setDouble(FR.speedMetersPerSecond);
-    DriveRLD.setDouble(RL.speedMetersPerSecond);
-    DriveRRD.setDouble(RR.speedMetersPerSecond);
+    DriveFLD.setDouble(speeds[0]);
+    DriveFRD.setDouble(speeds[1]);
+    DriveRLD.setDouble(speeds[2]);
+    DriveRRD.setDouble(speeds[3]);
   }
 
   protected DriveTab() {
@@ -7,12 +7,18 @@ import edu.wpi.first.wpilibj.DigitalInput;
 import edu.wpi.first.wpilibj.Servo;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.constants.CANConstants;
 import frc.robot.constants.ClimberConstants;
+import frc.robot.utils.OutputGate;
+import frc.robot.utils.profiler.LoopProfiler;
 
 public class ClimberSub extends SubsystemBase {
+  private static final LoopProfiler.Section profile = LoopProfiler.section("ClimberSub");
+
   private final WPI_VictorSPX motor = ClimberConstants.MOTOR_1_ID.get();
   private final Servo servo = new Servo(ClimberConstants.SERVO_PORT);
   private final DigitalInput climberStop = new DigitalInput(ClimberConstants.CLIMBER_STOP_PORT);
+  private final OutputGate gate = new OutputGate(CANConstants.PERCENT_OUTPUT_THRESHOLD);
 
   private double targetSpeed = 0;
   private Timer timer = new Timer();
@@ -31,11 +37,16 @@ public class ClimberSub extends SubsystemBase {
 
   @Override
   public void periodic() {
-    if(targetSpeed != 0 && timer.get()>0.5){
-      motor.set(targetSpeed);
-    } else {
-      motor.stopMotor();
+    profile.start();
+    final double speed = targetSpeed != 0 && timer.get()>0.5 ? targetSpeed : 0;
+    if (gate.shouldWrite(speed)) {
+      if (speed != 0) {
+        motor.set(speed);
+      } else {
+        motor.stopMotor();
+      }
     }
+    profile.stop();
   }
 
   /**
@@ -52,7 +63,9 @@ public class ClimberSub extends SubsystemBase {
   /** Stops the intake motor, taking necessary servo actions. */
   public void stop() {
     targetSpeed = 0;
-    motor.stopMotor();
+    if (gate.shouldWrite(0)) {
+      motor.stopMotor();
+    }
 
     servo.setPosition(ClimberConstants.SERVO_LOCKED_POS);
   }
@@ -6,35 +6,54 @@
 
 package frc.robot.subsystems;
 
+import java.util.Optional;
+
+import com.ctre.phoenix6.BaseStatusSignal;
 import com.pathplanner.lib.auto.AutoBuilder;
 import com.pathplanner.lib.util.HolonomicPathFollowerConfig;
 import com.pathplanner.lib.util.ReplanningConfig;
 
-import edu.wpi.first.math.filter.SlewRateLimiter;
+import org.photonvision.EstimatedRobotPose;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Twist2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
-import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
-import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.wpilibj.ADIS16470_IMU;
 import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.ADIS16470_IMU.IMUAxis;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.simulation.ADIS16470_IMUSim;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.RobotSnapshot;
 import frc.robot.constants.DriveConstants;
+import frc.robot.constants.VisionConstants;
 import frc.robot.shufflecontrol.ShuffleControl;
+import frc.robot.utils.ConsoleLog;
+import frc.robot.utils.GeometryUtils;
+import frc.robot.utils.SwerveDriveController;
+import frc.robot.utils.SwerveKinematics;
 import frc.robot.utils.SwerveModule;
+import frc.robot.utils.SwerveSetpointGenerator;
 import frc.robot.utils.PhotonBridge;
-import frc.robot.utils.SwerveUtils;
+import frc.robot.utils.PoseHistory;
+import frc.robot.utils.RobotClock;
+import frc.robot.utils.VisionFilter;
+import frc.robot.utils.profiler.LoopProfiler;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 
 public class DriveSub extends SubsystemBase {
+  private static final LoopProfiler.Section profile = LoopProfiler.section("DriveSub");
+  private static final ConsoleLog.Source console = ConsoleLog.source("DriveSub", 5);
+
   // Swerve Modules
   public final SwerveModule frontLeft = new SwerveModule(
       DriveConstants.FRONT_LEFT_DRIVING_CAN_ID,
@@ -56,34 +75,63 @@ public class DriveSub extends SubsystemBase {
       DriveConstants.BACK_RIGHT_TURNING_CAN_ID,
       DriveConstants.BACK_RIGHT_CHASSIS_ANGULAR_OFFSET);
 
-  public SwerveModuleState[] lastStates = {
-      frontLeft.getState(),
-      frontRight.getState(),
-      backLeft.getState(),
-      backRight.getState()
+  /** drive motor signals of every module, refreshed together by the odometry thread */
+  private final BaseStatusSignal[] moduleSignals = SwerveModule.getSignals(frontLeft, frontRight, backLeft, backRight);
+
+  private final SwerveModule[] modules = { frontLeft, frontRight, backLeft, backRight };
+
+  private final SwerveKinematics kinematics = new SwerveKinematics(
+      DriveConstants.FRONT_LEFT_MODULE_TRANSLATION,
+      DriveConstants.FRONT_RIGHT_MODULE_TRANSLATION,
+      DriveConstants.BACK_LEFT_MODULE_TRANSLATION,
+      DriveConstants.BACK_RIGHT_MODULE_TRANSLATION);
+
+  // Scratch state reused every loop so driving does not allocate
+  private final double[] moduleSpeeds = new double[4];
+  private final double[] moduleAngles = new double[4];
+  private final double[] chassisSpeeds = new double[3];
+  private final double[] visionFramePose = new double[PoseHistory.SIZE];
+  private final double[] wheelAngles = new double[4];
+  private final double[] wheelSpeeds = new double[4];
+  /** only used by the odometry thread */
+  private final SwerveModulePosition[] odometryPositions = {
+      new SwerveModulePosition(),
+      new SwerveModulePosition(),
+      new SwerveModulePosition(),
+      new SwerveModulePosition()
   };
+  private final double[] odometrySpeeds = new double[4];
+  private final double[] odometryAngles = new double[4];
+  private final double[] odometryChassis = new double[3];
+  private final double[] odometryDeltas = new double[4];
+  private final double[] odometryDeltaAngles = new double[4];
+  private final double[] odometryTwist = new double[3];
+  /**
+   * pose from odometry alone, x, y and heading, never moved by vision. Only
+   * used under the estimator lock
+   */
+  private final double[] odometryPose = new double[3];
+  private final double[] lastOdometryDistances = new double[4];
+  private double lastOdometryGyro = 0;
+  /** added to the gyro angle to give the odometry heading, set on reset */
+  private double odometryGyroOffset = 0;
   private int updateShuffleCounter = 0;
 
   // The gyro sensor
   private final ADIS16470_IMU imu = new ADIS16470_IMU();
 
   // Photon Bridge
-  // public final PhotonBridge photon = new PhotonBridge();
+  public final PhotonBridge photon = new PhotonBridge();
 
   // Field for robot viz
   private final Field2d field = new Field2d();
 
-  // Slew rate filter variables for controlling lateral acceleration
-  private double currentRotation = 0.0;
-  private double currentTranslationDir = 0.0;
-  private double currentTranslationMag = 0.0;
-
-  private SlewRateLimiter magLimiter = new SlewRateLimiter(DriveConstants.MAGNITUDE_SLEW_RATE);
-  private SlewRateLimiter rotLimiter = new SlewRateLimiter(DriveConstants.ROTATIONAL_SLEW_RATE);
-  private double prevTime = WPIUtilJNI.now() * 1e-6;
+  // Works out the module setpoints, rate limited within what the modules can do
+  private final SwerveDriveController driveController = new SwerveDriveController();
 
-  // Pose estimation class for tracking robot pose
-  SwerveDriveOdometry odometry = new SwerveDriveOdometry(
+  // Pose estimation class for tracking robot pose, keeps a timestamped pose
+  // history so vision can be applied at the time its frame was taken
+  private final SwerveDrivePoseEstimator poseEstimator = new SwerveDrivePoseEstimator(
       DriveConstants.DRIVE_KINEMATICS,
       Rotation2d.fromDegrees(imu.getAngle(IMUAxis.kZ)),
       new SwerveModulePosition[] {
@@ -93,9 +141,25 @@ public class DriveSub extends SubsystemBase {
           backRight.getPosition()
       }, new Pose2d());
 
+  /**
+   * Pose published by the odometry thread, replaced whole so readers never
+   * lock. Allocating one snapshot per odometry cycle is an accepted cost: the
+   * estimator already allocates the Pose2d in it and its own history entry on
+   * every update, and a reused holder could be read half written.
+   */
+  private volatile PoseSnapshot poseSnapshot = new PoseSnapshot(RobotClock.now(), new Pose2d(), odometryPose);
+  private final Notifier odometryNotifier = new Notifier(this::updateOdometry);
+  /**
+   * every odometry only pose and speed, added under the estimator lock. Vision
+   * corrections never rewrite it, {@link #getPoseAt(double, double[])} lines
+   * it up with the current estimate instead
+   */
+  private final PoseHistory poseHistory = new PoseHistory(DriveConstants.POSE_HISTORY_SIZE);
+
   // Simulation Variables
   ADIS16470_IMUSim imuSim = new ADIS16470_IMUSim(imu);
-  private Pose2d poseSim = new Pose2d();
+  /** simulated x, y and heading, see {@link GeometryUtils} */
+  private final double[] poseSim = new double[3];
 
   /** Creates a new DriveSubsystem. */
   public DriveSub() {
@@ -121,18 +185,51 @@ public class DriveSub extends SubsystemBase {
         },
         this);
     SmartDashboard.putData(field);
+
+    for (int i = 0; i < modules.length; i++) {
+      lastOdometryDistances[i] = modules[i].getPosition().distanceMeters;
+    }
+    lastOdometryGyro = readHeading();
+    odometryGyroOffset = -lastOdometryGyro;
+
+    odometryNotifier.setName("Odometry");
+    odometryNotifier.startPeriodic(1.0 / DriveConstants.ODOMETRY_FREQUENCY);
+  }
+
+  /** A pose estimate and the robot clock time its sensors were sampled. */
+  public static class PoseSnapshot {
+    public final double timestamp;
+    public final Pose2d pose;
+    // the odometry only pose at the same time and the pose as an array, to
+    // line the history up with the estimate
+    private final double[] odometry;
+    private final double[] estimate;
+
+    private PoseSnapshot(double timestamp, Pose2d pose, double[] odometryPose) {
+      this.timestamp = timestamp;
+      this.pose = pose;
+      odometry = odometryPose.clone();
+      estimate = new double[] { pose.getX(), pose.getY(), pose.getRotation().getRadians() };
+    }
   }
 
   @Override
   public void periodic() {
+    profile.start();
     // Update the odometry in the periodic block
     if (updateShuffleCounter > DriveConstants.updateShuffleInterval) {
-      ShuffleControl.driveTab.setWheelAxes(lastStates[0], lastStates[1], lastStates[2], lastStates[3]);
+      for (int i = 0; i < modules.length; i++) {
+        wheelAngles[i] = RobotSnapshot.getModuleAngle(i);
+        wheelSpeeds[i] = RobotSnapshot.getModuleSpeed(i);
+      }
+      ShuffleControl.driveTab.setWheelAxes(wheelAngles, wheelSpeeds);
       updateShuffleCounter = 0;
     } else {
       updateShuffleCounter++;
     }
-    updateOdometry();
+    updateVision();
+    field.setRobotPose(getPose());
+    profile.stop();
   }
 
   /**
@@ -141,7 +238,55 @@ public class DriveSub extends SubsystemBase {
    * @return The pose.
    */
   public Pose2d getPose() {
-    return RobotBase.isSimulation() ? poseSim : odometry.getPoseMeters();
+    return RobotBase.isSimulation()
+        ? new Pose2d(poseSim[0], poseSim[1], new Rotation2d(poseSim[2]))
+        : poseSnapshot.pose;
+  }
+
+  /**
+   * Returns the latest pose from the odometry thread with its sample time.
+   * Safe to call from any thread.
+   */
+  public PoseSnapshot getPoseSnapshot() {
+    return poseSnapshot;
+  }
+
+  /**
+   * Finds the pose and speeds at a past time, eg to line up a camera frame
+   * with where the robot was when it was taken. Interpolated between odometry
+   * samples, then moved so it agrees with the current estimate: the result is
+   * the latest estimate taken back by how far odometry says the robot moved
+   * since, so it follows every vision correction. Safe to call from any
+   * thread and does not allocate.
+   *
+   * @param time robot clock time in seconds
+   * @param out  {@link PoseHistory#SIZE} long, filled with x and y in meters,
+   *             heading in radians, robot relative vx and vy in m/s and omega
+   *             in rad/s
+   * @return false if the history does not go back that far, out may have
+   *         been written to
+   */
+  public boolean getPoseAt(double time, double[] out) {
+    final PoseSnapshot snapshot = poseSnapshot;
+    if (!poseHistory.get(time, out)) {
+      return false;
+    }
+    VisionFilter.alignToEstimate(out, snapshot.odometry, snapshot.estimate);
+    return true;
+  }
+
+  /**
+   * Finds the pose at a past time, see {@link #getPoseAt(double, double[])}.
+   *
+   * @param time robot clock time in seconds
+   * @return the pose, empty if the history does not go back that far
+   */
+  public Optional<Pose2d> getPoseAt(double time) {
+    final double[] out = new double[PoseHistory.SIZE];
+    if (!getPoseAt(time, out)) {
+      return Optional.empty();
+    }
+    return Optional.of(new Pose2d(out[0], out[1], new Rotation2d(out[2])));
   }
 
   /**
@@ -152,19 +297,36 @@ public class DriveSub extends SubsystemBase {
   public void resetOdometry(Pose2d pose) {
     if (RobotBase.isSimulation()) {
       imuSim.setGyroAngleZ(pose.getRotation().getDegrees());
-      poseSim = pose;
+      poseSim[0] = pose.getX();
+      poseSim[1] = pose.getY();
+      poseSim[2] = pose.getRotation().getRadians();
       return;
     }
 
-    odometry.resetPosition(
-        getHeading(),
-        new SwerveModulePosition[] {
-            frontLeft.getPosition(),
-            frontRight.getPosition(),
-            backLeft.getPosition(),
-            backRight.getPosition()
-        },
-        pose);
+    photon.reset(pose);
+    synchronized (poseEstimator) {
+      final Rotation2d heading = getHeading();
+      final SwerveModulePosition[] positions = {
+          frontLeft.getPosition(),
+          frontRight.getPosition(),
+          backLeft.getPosition(),
+          backRight.getPosition()
+      };
+      poseEstimator.resetPosition(heading, positions, pose);
+
+      for (int i = 0; i < modules.length; i++) {
+        lastOdometryDistances[i] = positions[i].distanceMeters;
+      }
+      lastOdometryGyro = heading.getRadians();
+      odometryGyroOffset = pose.getRotation().getRadians() - lastOdometryGyro;
+      odometryPose[0] = pose.getX();
+      odometryPose[1] = pose.getY();
+      odometryPose[2] = pose.getRotation().getRadians();
+
+      poseSnapshot = new PoseSnapshot(RobotClock.now(), poseEstimator.getEstimatedPosition(), odometryPose);
+      // the old poses are from before the jump
+      poseHistory.clear();
+    }
   }
 
   // For reference, the below code is the actual drive function if the last
@@ -191,88 +353,21 @@ public class DriveSub extends SubsystemBase {
    * @param rot           Angular rate of the robot.
    * @param fieldRelative Whether the provided x and y speeds are relative to the
    *                      field.
-   * @param rateLimit     Whether to enable rate limiting for smoother control.
+   * @param rateLimit     Whether to limit acceleration and steering to what the
+   *                      modules can do, see {@link SwerveSetpointGenerator}.
    */
   public void drive(double xSpeed, double ySpeed, double rot, boolean fieldRelative, boolean rateLimit) {
     if (xSpeed == 0 && ySpeed == 0) {
       resetIntegral();
     }
-    double xSpeedCommanded;
-    double ySpeedCommanded;
-
-    if (rateLimit) {
-      // Convert XY to polar for rate limiting
-      double inputTranslationDir = Math.atan2(ySpeed, xSpeed);
-      double inputTranslationMag = Math.sqrt(Math.pow(xSpeed, 2) + Math.pow(ySpeed, 2));
-
-      // Calculate the direction slew rate based on an estimate of the lateral
-      // acceleration
-      double directionSlewRate;
-      if (currentTranslationMag != 0.0) {
-        directionSlewRate = Math.abs(DriveConstants.DIRECTION_SLEW_RATE / currentTranslationMag);
-      } else {
-        directionSlewRate = 500.0; // some high number that means the slew rate is effectively instantaneous
-      }
+    driveController.drive(xSpeed, ySpeed, rot, fieldRelative, rateLimit,
+        RobotSnapshot.getHeadingCos(), RobotSnapshot.getHeadingSin(),
+        RobotSnapshot.getVx(), RobotSnapshot.getVy(), RobotSnapshot.getOmega(),
+        RobotClock.now(), moduleSpeeds, moduleAngles);
 
-      double currentTime = WPIUtilJNI.now() * 1e-6;
-      double elapsedTime = currentTime - prevTime;
-      double angleDif = SwerveUtils.AngleDifference(inputTranslationDir, currentTranslationDir);
-      if (angleDif < 0.45 * Math.PI) {
-        currentTranslationDir = SwerveUtils.StepTowardsCircular(currentTranslationDir, inputTranslationDir,
-            directionSlewRate * elapsedTime);
-        currentTranslationMag = magLimiter.calculate(inputTranslationMag);
-      } else if (angleDif > 0.85 * Math.PI) {
-        if (currentTranslationMag > 1e-4) { // some small number to avoid floating-point errors with equality checking
-          // keep currentTranslationDir unchanged
-          currentTranslationMag = magLimiter.calculate(0.0);
-        } else {
-          currentTranslationDir = SwerveUtils.WrapAngle(currentTranslationDir + Math.PI);
-          currentTranslationMag = magLimiter.calculate(inputTranslationMag);
-        }
-      } else {
-        currentTranslationDir = SwerveUtils.StepTowardsCircular(currentTranslationDir, inputTranslationDir,
-            directionSlewRate * elapsedTime);
-        currentTranslationMag = magLimiter.calculate(0.0);
-      }
-      prevTime = currentTime;
-
-      xSpeedCommanded = currentTranslationMag * Math.cos(currentTranslationDir);
-      ySpeedCommanded = currentTranslationMag * Math.sin(currentTranslationDir);
-      currentRotation = rotLimiter.calculate(rot);
-
-    } else {
-      xSpeedCommanded = xSpeed;
-      ySpeedCommanded = ySpeed;
-      currentRotation = rot;
+    for (int i = 0; i < modules.length; i++) {
+      modules[i].setDesiredState(moduleSpeeds[i], moduleAngles[i]);
     }
-
-    // Convert the commanded speeds into the correct units for the drivetrain
-    double xSpeedDelivered = xSpeedCommanded * DriveConstants.MAX_SPEED;
-    double ySpeedDelivered = ySpeedCommanded * DriveConstants.MAX_SPEED;
-    double rotDelivered = currentRotation * DriveConstants.MAX_ANGULAR_SPEED;
-
-    // System.out.println(xSpeedDelivered + " " + ySpeedDelivered + " " +
-    // rotDelivered +" "+ getHeading());
-
-    var swerveModuleStates = DriveConstants.DRIVE_KINEMATICS.toSwerveModuleStates(
-        fieldRelative
-            ? ChassisSpeeds.fromFieldRelativeSpeeds(xSpeedDelivered, ySpeedDelivered, rotDelivered,
-                getHeading())
-            : new ChassisSpeeds(xSpeedDelivered, ySpeedDelivered, rotDelivered));
-    SwerveDriveKinematics.desaturateWheelSpeeds(
-        swerveModuleStates, DriveConstants.MAX_SPEED);
-
-    frontLeft.setDesiredState(swerveModuleStates[0]);
-    frontRight.setDesiredState(swerveModuleStates[1]);
-    backLeft.setDesiredState(swerveModuleStates[2]);
-    backRight.setDesiredState(swerveModuleStates[3]);
-
-    lastStates = new SwerveModuleState[] {
-        frontLeft.getState(),
-        frontRight.getState(),
-        backLeft.getState(),
-        backRight.getState()
-    };
   }
 
   /**
@@ -288,10 +383,10 @@ public class DriveSub extends SubsystemBase {
    * Sets the wheels into an X formation to prevent movement.
    */
   public void setX() {
-    frontLeft.setDesiredState(new SwerveModuleState(0, Rotation2d.fromDegrees(45)));
-    frontRight.setDesiredState(new SwerveModuleState(0, Rotation2d.fromDegrees(-45)));
-    backLeft.setDesiredState(new SwerveModuleState(0, Rotation2d.fromDegrees(-45)));
-    backRight.setDesiredState(new SwerveModuleState(0, Rotation2d.fromDegrees(45)));
+    frontLeft.setDesiredState(0, Math.toRadians(45));
+    frontRight.setDesiredState(0, Math.toRadians(-45));
+    backLeft.setDesiredState(0, Math.toRadians(-45));
+    backRight.setDesiredState(0, Math.toRadians(45));
   }
 
   /**
@@ -331,7 +426,8 @@ public class DriveSub extends SubsystemBase {
   }
 
   /**
-   * Returns the heading of the robot.
+   * Returns the heading of the robot, read from the IMU. In the robot loop
+   * use {@link RobotSnapshot#getHeading()} instead.
    *
    * @return the robot's heading as a Rotation2d
    */
@@ -339,6 +435,15 @@ public class DriveSub extends SubsystemBase {
     return Rotation2d.fromDegrees(imu.getAngle(IMUAxis.kZ));
   }
 
+  /**
+   * Reads the heading for {@link RobotSnapshot}.
+   *
+   * @return the robot's heading in radians
+   */
+  public double readHeading() {
+    return Math.toRadians(imu.getAngle(IMUAxis.kZ));
+  }
+
   /**
    * Returns the turn rate of the robot.
    *
@@ -349,74 +454,140 @@ public class DriveSub extends SubsystemBase {
   }
 
   public double estimateDist() {
-    double d = (frontLeft.getPosition().distanceMeters) / 3.5151856018;
+    double d = frontLeft.getDistance() / 3.5151856018;
     return d;
   }
 
   /**
    * Updates the robot's odometry.
    * 
-   * This should be called every robot tick, in the periodic function.
+   * Runs on the odometry thread at {@link DriveConstants#ODOMETRY_FREQUENCY}.
+   * Waits for fresh drive motor signals from every module at once, caches
+   * them in the modules for all other readers, then samples the heading and
+   * publishes the result as a new {@link PoseSnapshot}. The odometry only pose
+   * goes in the {@link PoseHistory}. The estimator is stamped with the sample
+   * time so vision lines up with it.
    */
-  public void updateOdometry() {
-    odometry.update(
-        getHeading(),
-        new SwerveModulePosition[] {
-            frontLeft.getPosition(),
-            frontRight.getPosition(),
-            backLeft.getPosition(),
-            backRight.getPosition()
-        });
+  private void updateOdometry() {
+    final var status = BaseStatusSignal.waitForAll(DriveConstants.ODOMETRY_SIGNAL_TIMEOUT, moduleSignals);
+    if (!status.isOK()) {
+      console.println("module signal refresh failed : " + status);
+    }
+    frontLeft.updateCache();
+    frontRight.updateCache();
+    backLeft.updateCache();
+    backRight.updateCache();
+
+    final double timestamp = RobotClock.now();
+    final Rotation2d heading = getHeading();
+    for (int i = 0; i < modules.length; i++) {
+      modules[i].getPosition(odometryPositions[i]);
+    }
+    readModuleStates(odometrySpeeds, odometryAngles, odometryChassis);
+    synchronized (poseEstimator) {
+      final Pose2d pose = poseEstimator.updateWithTime(timestamp, heading, odometryPositions);
+      updateOdometryPose(heading.getRadians());
+      poseSnapshot = new PoseSnapshot(timestamp, pose, odometryPose);
+      poseHistory.add(timestamp, odometryPose[0], odometryPose[1], odometryPose[2],
+          odometryChassis[0], odometryChassis[1], odometryChassis[2]);
+    }
         //System.out.println(frontLeft.getPosition() + " " +
         //    frontRight.getPosition() + " " +
         //    backLeft.getPosition() + " " +
         //    backRight.getPosition());
+  }
 
-    // photon.getEstimatedGlobalPose()
-    // .ifPresent((visionResult) -> {
-    // var visionPose = visionResult.estimatedPose.toPose2d();
-
-    // // Reject any egregiously incorrect vision pose estimates
-    // if (visionPose.getTranslation().getDistance(getPose().getTranslation()) > 1)
-    // return;
+  /**
+   * Moves the odometry only pose by how far the modules went since the last
+   * cycle, the same way SwerveDriveOdometry does, with the heading from the
+   * gyro. Call under the estimator lock, after odometryPositions is filled.
+   */
+  private void updateOdometryPose(double gyroAngle) {
+    for (int i = 0; i < modules.length; i++) {
+      odometryDeltas[i] = odometryPositions[i].distanceMeters - lastOdometryDistances[i];
+      odometryDeltaAngles[i] = odometryPositions[i].angle.getRadians();
+      lastOdometryDistances[i] = odometryPositions[i].distanceMeters;
+    }
+    kinematics.toChassisSpeeds(odometryDeltas, odometryDeltaAngles, odometryTwist);
+    GeometryUtils.exp(odometryPose, odometryTwist[0], odometryTwist[1],
+        GeometryUtils.difference(gyroAngle, lastOdometryGyro), odometryPose);
+    odometryPose[2] = GeometryUtils.wrap(gyroAngle + odometryGyroOffset);
+    lastOdometryGyro = gyroAngle;
+  }
 
-    // odometry.addVisionMeasurement(visionPose, 0.02);
-    // });
+  /**
+   * Adds a new camera pose from the vision thread to the estimator, if there
+   * is one and {@link VisionConstants#FUSE_VISION} is on. It is applied at the
+   * time the frame was taken and replayed forward through the odometry since,
+   * so frame latency does not drag the pose behind while moving. Poses more
+   * than {@link VisionConstants#MAX_POSE_ERROR} from where the robot was at
+   * that time are dropped, so one bad frame cannot throw the pose off.
+   * Photon timestamps use the FPGA clock, the same as {@link RobotClock}.
+   */
+  private void updateVision() {
+    if (!VisionConstants.FUSE_VISION) {
+      return;
+    }
+    final Optional<EstimatedRobotPose> result = photon.takeEstimatedGlobalPose();
+    if (result.isEmpty()) {
+      return;
+    }
+    final EstimatedRobotPose estimate = result.get();
+    final Optional<Matrix<N3, N1>> stdDevs = photon.getEstimationStdDevs(estimate);
+    if (stdDevs.isEmpty()) {
+      return;
+    }
+    final Pose2d visionPose = estimate.estimatedPose.toPose2d();
+    if (!getPoseAt(estimate.timestampSeconds, visionFramePose)
+        || !VisionFilter.isNearReference(visionPose.getX(), visionPose.getY(), visionFramePose)) {
+      return;
+    }
+    synchronized (poseEstimator) {
+      poseEstimator.addVisionMeasurement(visionPose, estimate.timestampSeconds, stdDevs.get());
+    }
+  }
 
-    field.setRobotPose(getPose());
+  /**
+   * Reads the measured module states and the chassis speeds they give, for
+   * {@link RobotSnapshot} and the {@link PoseHistory}.
+   *
+   * @param speeds  filled with the module speeds in m/s
+   * @param angles  filled with the module angles relative to the chassis in radians
+   * @param chassis filled with the robot relative vx, vy and omega
+   */
+  public void readModuleStates(double[] speeds, double[] angles, double[] chassis) {
+    for (int i = 0; i < modules.length; i++) {
+      final SwerveModule.Sample sample = modules[i].getSample();
+      speeds[i] = sample.driveVelocity;
+      angles[i] = sample.chassisAngle;
+    }
+    kinematics.toChassisSpeeds(speeds, angles, chassis);
   }
 
+  /** @return robot relative speeds measured at the start of this loop */
   public ChassisSpeeds getRelativeChassisSpeeds() {
-    return DriveConstants.DRIVE_KINEMATICS.toChassisSpeeds(
-        frontLeft.getState(),
-        frontRight.getState(),
-        backLeft.getState(),
-        backRight.getState());
+    return new ChassisSpeeds(RobotSnapshot.getVx(), RobotSnapshot.getVy(), RobotSnapshot.getOmega());
   }
 
   /** not really intended for more accuracy than logging requires */
   public double getSpeedMS(){
-    ChassisSpeeds speed = getRelativeChassisSpeeds();
-    return Math.hypot(speed.vxMetersPerSecond, speed.vyMetersPerSecond);
+    return RobotSnapshot.getSpeed();
   }
 
   @Override
   public void simulationPeriodic() {
-    final var speeds = DriveConstants.DRIVE_KINEMATICS.toChassisSpeeds(
-        frontLeft.getDesiredState(),
-        frontRight.getDesiredState(),
-        backLeft.getDesiredState(),
-        backRight.getDesiredState());
-
-    imuSim.setGyroRateZ(speeds.omegaRadiansPerSecond * (180 / Math.PI));
-    imuSim.setGyroAngleZ(getHeading().plus(Rotation2d.fromRadians(speeds.omegaRadiansPerSecond * 0.02)).getDegrees());
-
-    poseSim = poseSim.exp(
-        new Twist2d(
-            speeds.vxMetersPerSecond * 0.02,
-            speeds.vyMetersPerSecond * 0.02,
-            speeds.omegaRadiansPerSecond * 0.02));
-
-    // photon.simulationPeriodic(getPose());
+    for (int i = 0; i < modules.length; i++) {
+      moduleSpeeds[i] = modules[i].getDesiredSpeed();
+      moduleAngles[i] = modules[i].getDesiredAngle();
+    }
+    kinematics.toChassisSpeeds(moduleSpeeds, moduleAngles, chassisSpeeds);
+    final double omega = chassisSpeeds[2];
+
+    imuSim.setGyroRateZ(omega * (180 / Math.PI));
+    imuSim.setGyroAngleZ(Math.toDegrees(GeometryUtils.wrap(readHeading() + omega * 0.02)));
+
+    GeometryUtils.exp(poseSim, chassisSpeeds[0] * 0.02, chassisSpeeds[1] * 0.02, omega * 0.02, poseSim);
+
+    photon.simulationPeriodic(getPose());
   }
 }
\ No newline at end of file
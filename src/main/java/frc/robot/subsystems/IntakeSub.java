@@ -7,15 +7,23 @@ import edu.wpi.first.wpilibj.DigitalInput;
 import edu.wpi.first.wpilibj.util.Color;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
+import frc.robot.RobotSnapshot;
 import frc.robot.commands.ClearLEDCommand;
 import frc.robot.commands.SolidLEDCommand;
+import frc.robot.constants.CANConstants;
 import frc.robot.constants.IntakeConstants;
 import frc.robot.shufflecontrol.ShuffleControl;
+import frc.robot.utils.OutputGate;
+import frc.robot.utils.profiler.LoopProfiler;
 
 public class IntakeSub extends SubsystemBase {
+  private static final LoopProfiler.Section profile = LoopProfiler.section("IntakeSub");
+
   private final WPI_VictorSPX masterMotor = IntakeConstants.UPPER_MOTOR_ID.get();
   private final WPI_VictorSPX slaveMotor = IntakeConstants.LOWER_MOTOR_ID.get();
   private final DigitalInput beamBreakSensor = new DigitalInput(IntakeConstants.BEAM_BREAK_SENSOR_ID);
+  // the slave follows the master, so only the master's output is gated
+  private final OutputGate gate = new OutputGate(CANConstants.PERCENT_OUTPUT_THRESHOLD);
 
   public IntakeSub() {
     masterMotor.configFactoryDefault();
@@ -35,10 +43,12 @@ public class IntakeSub extends SubsystemBase {
 
   @Override
   public void periodic() {
+    profile.start();
     final var isRunning = masterMotor.get() != 0.0;
     final var locked = noteIsPresent();
 
     ShuffleControl.miscTab.setIntakeVars(locked, isRunning);
+    profile.stop();
   }
 
   /**
@@ -63,15 +73,25 @@ public class IntakeSub extends SubsystemBase {
 
     // isRunning = true;
     speed = MathUtil.clamp(speed, -1, 1);
-    masterMotor.set(speed);
+    if (gate.shouldWrite(speed)) {
+      masterMotor.set(speed);
+    }
   }
 
   /** Stops the intake motor */
   public void stop() {
-    masterMotor.stopMotor();
+    if (gate.shouldWrite(0)) {
+      masterMotor.stopMotor();
+    }
   }
 
+  /** @return true if there is a note in the intake, as read at the start of this loop */
   public boolean noteIsPresent() {
+    return RobotSnapshot.isNotePresent();
+  }
+
+  /** Reads the beam break sensor for {@link RobotSnapshot}. */
+  public boolean readNoteSensor() {
     return !beamBreakSensor.get();
   }
 
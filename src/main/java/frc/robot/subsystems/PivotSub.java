@@ -4,13 +4,19 @@ import com.ctre.phoenix.motorcontrol.can.WPI_VictorSPX;
 
 import edu.wpi.first.wpilibj.DigitalInput;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.constants.CANConstants;
 import frc.robot.constants.PivotConstants;
 import frc.robot.shufflecontrol.ShuffleControl;
+import frc.robot.utils.OutputGate;
+import frc.robot.utils.profiler.LoopProfiler;
 
 public class PivotSub extends SubsystemBase {
+  private static final LoopProfiler.Section profile = LoopProfiler.section("PivotSub");
+
   private final WPI_VictorSPX motor = PivotConstants.PIVOT_MOTOR_ID.get();
   private final DigitalInput highestSwitch = new DigitalInput(PivotConstants.HIGHEST_PIVOT_SWITCH_ID);
   private final DigitalInput lowestSwitch = new DigitalInput(PivotConstants.LOWEST_PIVOT_SWITCH_ID);
+  private final OutputGate gate = new OutputGate(CANConstants.PERCENT_OUTPUT_THRESHOLD);
 
   private State state = State.Idle;
 
@@ -30,17 +36,19 @@ public class PivotSub extends SubsystemBase {
 
   @Override
   public void periodic() {
+    profile.start();
     ShuffleControl.miscTab.setPivotState(state);
 
     if (highestSwitch.get()) {
       state = State.FullyUp;
-      motor.stopMotor();
+      setMotor(0);
     }
 
     if (lowestSwitch.get()) {
       state = State.FullyDown;
-      motor.stopMotor();
+      setMotor(0);
     }
+    profile.stop();
   }
 
   /** Start pivoting upwards. Will automatically stop at the limit. */
@@ -48,7 +56,7 @@ public class PivotSub extends SubsystemBase {
     //if (state == State.FullyUp)
     //  return;
     state = State.MovingUp;
-    motor.set(0.3);
+    setMotor(0.3);
   }
 
   /** Start pivoting downwards. Will automatically stop at the limit. */
@@ -56,13 +64,30 @@ public class PivotSub extends SubsystemBase {
     //if (state == State.FullyDown)
     //  return;
     state = State.MovingDown;
-    motor.set(-0.3);
+    setMotor(-0.3);
   }
 
   /** Stops pivoting immediately. */
   public void stop() {
     state = State.Idle;
-    motor.stopMotor();
+    setMotor(0);
+  }
+
+  private void setMotor(double speed) {
+    if (!motor.isAlive()) {
+      // motor safety stopped the motor, so whatever the gate last wrote is gone
+      gate.reset();
+    }
+    if (!gate.shouldWrite(speed)) {
+      // the motor has safety enabled, so skipped writes still have to feed it
+      motor.feed();
+      return;
+    }
+    if (speed == 0) {
+      motor.stopMotor();
+    } else {
+      motor.set(speed);
+    }
   }
 
   public State getState() {
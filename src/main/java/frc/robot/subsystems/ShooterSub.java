@@ -4,12 +4,16 @@ import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
 
 import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.constants.CANConstants;
 import frc.robot.constants.ShooterConstants;
 import frc.robot.shufflecontrol.ShuffleControl;
+import frc.robot.utils.OutputGate;
 
 public class ShooterSub extends SubsystemBase {
   private final WPI_TalonSRX upperMotor = ShooterConstants.UPPER_MOTOR_ID.get();
   private final WPI_TalonSRX lowerMotor = ShooterConstants.LOWER_MOTOR_ID.get();
+  private final OutputGate upperGate = new OutputGate(CANConstants.PERCENT_OUTPUT_THRESHOLD);
+  private final OutputGate lowerGate = new OutputGate(CANConstants.PERCENT_OUTPUT_THRESHOLD);
 
   public double ampSpd = 0.6;
   public double ampDiff = -0.22;
@@ -32,8 +36,12 @@ public class ShooterSub extends SubsystemBase {
   
   /** Stops the shooter. Call `setSpeed` to start again. */
   public void stop() {
-    upperMotor.stopMotor();
-    lowerMotor.stopMotor();
+    if (upperGate.shouldWrite(0)) {
+      upperMotor.stopMotor();
+    }
+    if (lowerGate.shouldWrite(0)) {
+      lowerMotor.stopMotor();
+    }
   }
 
   public void setSpeed(double speed, double spin) {
@@ -46,7 +54,13 @@ public class ShooterSub extends SubsystemBase {
     upperSpeed -= Math.copySign(Math.max(upperAbs - 1, 0), upperSpeed);
     lowerSpeed -= Math.copySign(Math.max(lowerAbs - 1, 0), lowerSpeed);
 
-    upperMotor.set(MathUtil.clamp(upperSpeed, -1, 1));
-    lowerMotor.set(MathUtil.clamp(lowerSpeed, -1, 1));
+    upperSpeed = MathUtil.clamp(upperSpeed, -1, 1);
+    lowerSpeed = MathUtil.clamp(lowerSpeed, -1, 1);
+    if (upperGate.shouldWrite(upperSpeed)) {
+      upperMotor.set(upperSpeed);
+    }
+    if (lowerGate.shouldWrite(lowerSpeed)) {
+      lowerMotor.set(lowerSpeed);
+    }
   }
 }
@@ -11,6 +11,8 @@ import frc.robot.utils.RangeMath.RangeSettings;
 
 public class TeleopDriveSwerve extends Command {
   private int updateShuffleCounter = 0;
+  /** reused every loop, CurveFit.fitDrive works in place */
+  private final double[] control = new double[4];
   public RangeSettings settings;
 
   public TeleopDriveSwerve(RangeSettings settings) {
@@ -22,8 +24,11 @@ public class TeleopDriveSwerve extends Command {
   public void execute() {
     double limiter = (1-OI.pilot.getRightTriggerAxis()); //TODO enable this when everything else is tested
     // organise field relitive switch
-    double[] control = CurveFit.fitDrive(new double[]{OI.pilot.getLeftX(), OI.pilot.getLeftY(), 
-                                         OI.pilot.getRightX(), limiter}, settings);
+    control[0] = OI.pilot.getLeftX();
+    control[1] = OI.pilot.getLeftY();
+    control[2] = OI.pilot.getRightX();
+    control[3] = limiter;
+    CurveFit.fitDrive(control, settings);
     var translateX  = control[0];
     var translateY  = control[1];
     var rotate      = control[2];
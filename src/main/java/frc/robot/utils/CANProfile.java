@@ -0,0 +1,181 @@
+package frc.robot.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import com.ctre.phoenix.motorcontrol.StatusFrame;
+import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.hardware.ParentDevice;
+import com.revrobotics.CANSparkBase.FaultID;
+import com.revrobotics.CANSparkLowLevel.PeriodicFrame;
+import com.revrobotics.CANSparkMax;
+
+import edu.wpi.first.hal.can.CANJNI;
+import edu.wpi.first.hal.can.CANStatus;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.constants.CANConstants;
+import frc.robot.utils.logger.LogPolicy;
+import frc.robot.utils.logger.Logger;
+
+/**
+ * Central place the status frame rates of every CAN device are set.
+ *
+ * Each device is configured with the frames or signals its code actually
+ * reads. Those are sent at the requested rate and every other frame is slowed
+ * to the slowest rate the device allows, so the bus only carries data
+ * somebody uses. {@link #periodic()} reports the bus load.
+ *
+ * None of the devices keep these rates through a power cycle, burnFlash()
+ * included, so every configured device is watched and set up again when it
+ * reports a reset.
+ */
+public class CANProfile {
+  private static final Logger logger = new Logger("can",
+      new String[] { "Utilization", "Bus Off", "TX Full", "RX Errors", "TX Errors" },
+      new LogPolicy().withRate(CANConstants.CAN_REPORT_RATE).withAlwaysOn());
+  private static final double[] logValues = new double[5];
+  /** filled in place every loop, RobotController.getCANStatus() allocates one */
+  private static final CANStatus status = new CANStatus();
+  private static final ConsoleLog.Source console = ConsoleLog.source("CANProfile", 0);
+
+  /** a configured device, and how to tell it reset and set it up again */
+  private static class Watched {
+    private final String name;
+    private final BooleanSupplier hasReset;
+    private final Runnable apply;
+
+    private Watched(String name, BooleanSupplier hasReset, Runnable apply) {
+      this.name = name;
+      this.hasReset = hasReset;
+      this.apply = apply;
+    }
+  }
+
+  private static final ArrayList<Watched> watched = new ArrayList<>();
+  private static double lastResetCheck = Double.NEGATIVE_INFINITY;
+
+  /** Phoenix 5 frames slowed unless they are read */
+  private static final StatusFrame[] PHOENIX5_FRAMES = {
+      StatusFrame.Status_1_General,
+      StatusFrame.Status_2_Feedback0,
+      StatusFrame.Status_4_AinTempVbat,
+      StatusFrame.Status_10_Targets,
+      StatusFrame.Status_12_Feedback1,
+      StatusFrame.Status_13_Base_PIDF0,
+      StatusFrame.Status_14_Turn_PIDF1
+  };
+
+  /** SPARK MAX frames slowed unless they are read, status 0 is kept for faults */
+  private static final PeriodicFrame[] SPARK_FRAMES = {
+      PeriodicFrame.kStatus1,
+      PeriodicFrame.kStatus2,
+      PeriodicFrame.kStatus3,
+      PeriodicFrame.kStatus4,
+      PeriodicFrame.kStatus5,
+      PeriodicFrame.kStatus6
+  };
+
+  /**
+   * Configures a Phoenix 6 device.
+   *
+   * @param device    the device the signals belong to
+   * @param frequency update rate in Hz of the signals that are read
+   * @param consumed  every signal read from this device
+   */
+  public static void configure(ParentDevice device, double frequency, BaseStatusSignal... consumed) {
+    watch("Phoenix 6 device " + device.getDeviceID(), device::hasResetOccurred, () -> {
+      BaseStatusSignal.setUpdateFrequencyForAll(frequency, consumed);
+      // disables every signal that has not been given a frequency
+      device.optimizeBusUtilization();
+    });
+  }
+
+  /**
+   * Configures a SPARK MAX.
+   *
+   * @param motor    the motor controller
+   * @param periodMs period of the frames that are read
+   * @param consumed every periodic frame read from this motor controller
+   */
+  public static void configure(CANSparkMax motor, int periodMs, PeriodicFrame... consumed) {
+    // the reset fault is sticky, so it is cleared once seen
+    final BooleanSupplier hasReset = () -> {
+      if (!motor.getStickyFault(FaultID.kHasReset)) {
+        return false;
+      }
+      motor.clearFaults();
+      return true;
+    };
+    watch("SPARK MAX " + motor.getDeviceId(), hasReset, () -> {
+      motor.setPeriodicFramePeriod(PeriodicFrame.kStatus0, CANConstants.SPARK_STATUS0_PERIOD_MS);
+      for (PeriodicFrame frame : SPARK_FRAMES) {
+        motor.setPeriodicFramePeriod(frame,
+            Arrays.asList(consumed).contains(frame) ? periodMs : CANConstants.SPARK_UNUSED_PERIOD_MS);
+      }
+    });
+  }
+
+  /**
+   * Configures a Phoenix 5 Talon SRX or Victor SPX.
+   *
+   * @param motor    the motor controller
+   * @param periodMs period of the frames that are read
+   * @param consumed every status frame read from this motor controller, eg
+   *                 general status for a motor that others follow
+   */
+  public static void configure(BaseMotorController motor, int periodMs, StatusFrame... consumed) {
+    watch("Phoenix 5 device " + motor.getDeviceID(), motor::hasResetOccurred, () -> {
+      for (StatusFrame frame : PHOENIX5_FRAMES) {
+        motor.setStatusFramePeriod(frame,
+            Arrays.asList(consumed).contains(frame) ? periodMs : CANConstants.PHOENIX5_UNUSED_PERIOD_MS);
+      }
+    });
+  }
+
+  /** Applies a device's frame rates now, and again whenever it resets. */
+  private static void watch(String name, BooleanSupplier hasReset, Runnable apply) {
+    apply.run();
+    // the reset seen at boot is the one just configured for
+    hasReset.getAsBoolean();
+    watched.add(new Watched(name, hasReset, apply));
+  }
+
+  /** Sets up again any device that reset since the last check. */
+  private static void checkResets() {
+    final double now = RobotClock.now();
+    if (now - lastResetCheck < CANConstants.RESET_CHECK_PERIOD) {
+      return;
+    }
+    lastResetCheck = now;
+    // indexed, an iterator would be allocated every check
+    for (int i = 0; i < watched.size(); i++) {
+      final Watched device = watched.get(i);
+      if (device.hasReset.getAsBoolean()) {
+        device.apply.run();
+        console.println(device.name + " reset, status frames set again");
+      }
+    }
+  }
+
+  /**
+   * Reports the CAN bus load to the dashboard and the log, and sets up any
+   * device that reset. Call every loop.
+   */
+  public static void periodic() {
+    checkResets();
+    CANJNI.getCANStatus(status);
+    SmartDashboard.putNumber("CAN/Utilization %", status.percentBusUtilization * 100);
+    SmartDashboard.putNumber("CAN/TX Full", status.txFullCount);
+    SmartDashboard.putNumber("CAN/RX Errors", status.receiveErrorCount);
+    SmartDashboard.putNumber("CAN/TX Errors", status.transmitErrorCount);
+
+    logValues[0] = status.percentBusUtilization * 100;
+    logValues[1] = status.busOffCount;
+    logValues[2] = status.txFullCount;
+    logValues[3] = status.receiveErrorCount;
+    logValues[4] = status.transmitErrorCount;
+    logger.log(logValues);
+  }
+}
@@ -0,0 +1,142 @@
+package frc.robot.utils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import frc.robot.constants.LoggerConstants;
+
+/**
+ * Console output that never blocks the robot loop.
+ * 
+ * Messages are queued and printed by a background thread. Each class prints
+ * through its own {@link Source}, which limits how often it may print;
+ * messages over the limit are counted and the count is added to the next one
+ * that gets through. Identical messages in a row are collapsed into one line
+ * with a repeat count, printed every {@link LoggerConstants#CONSOLE_REPEAT_FLUSH}
+ * while the run goes on and once more when it ends.
+ * 
+ * <pre>
+ * private static final ConsoleLog.Source console = ConsoleLog.source("DriveForDistance");
+ * ...
+ * console.println("distance reached");
+ * </pre>
+ */
+public class ConsoleLog {
+  private static final ArrayBlockingQueue<Message> queue = new ArrayBlockingQueue<>(LoggerConstants.CONSOLE_QUEUE_SIZE);
+  private static final AtomicLong dropped = new AtomicLong();
+
+  static {
+    Thread thread = new Thread(ConsoleLog::run, "Console");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /** a queued line, with the count of messages its source suppressed before it */
+  private static class Message {
+    private final String line;
+    private final int suppressed;
+
+    private Message(String line, int suppressed) {
+      this.line = line;
+      this.suppressed = suppressed;
+    }
+  }
+
+  /** A named, rate limited producer of console messages. */
+  public static class Source {
+    private final String prefix;
+    private final long minIntervalMicros;
+
+    private long lastMicros = Long.MIN_VALUE;
+    private int suppressed = 0;
+
+    private Source(String name, double minInterval) {
+      prefix = name + " : ";
+      minIntervalMicros = (long) (minInterval * 1e6);
+    }
+
+    /** Queues a message, unless this source printed too recently. */
+    public synchronized void println(String message) {
+      final long now = RobotClock.nowMicros();
+      if (lastMicros != Long.MIN_VALUE && now - lastMicros < minIntervalMicros) {
+        suppressed++;
+        return;
+      }
+      lastMicros = now;
+
+      // the suppressed count is added when printing, so repeats still match
+      if (!queue.offer(new Message(prefix + message, suppressed))) {
+        dropped.incrementAndGet();
+      }
+      suppressed = 0;
+    }
+  }
+
+  /** @return a source limited to one message every {@link LoggerConstants#CONSOLE_MIN_INTERVAL} */
+  public static Source source(String name) {
+    return new Source(name, LoggerConstants.CONSOLE_MIN_INTERVAL);
+  }
+
+  /**
+   * @param minInterval seconds between messages from this source, 0 for no
+   *                    limit
+   */
+  public static Source source(String name, double minInterval) {
+    return new Source(name, minInterval);
+  }
+
+  private static void run() {
+    final long flushMicros = (long) (LoggerConstants.CONSOLE_REPEAT_FLUSH * 1e6);
+    String previous = null;
+    int repeats = 0;
+    int repeatsSuppressed = 0;
+    long lastPrintMicros = 0;
+    long reportedDropped = 0;
+
+    while (true) {
+      Message message;
+      try {
+        message = queue.poll((long) (LoggerConstants.CONSOLE_REPEAT_FLUSH * 1000), TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        return;
+      }
+      final String line = message == null ? null : message.line;
+
+      final long now = RobotClock.nowMicros();
+      if (line != null && line.equals(previous)) {
+        repeats++;
+        repeatsSuppressed += message.suppressed;
+        // a message that keeps coming is still shown now and then
+        if (now - lastPrintMicros >= flushMicros) {
+          System.out.println(previous + " (repeated x" + repeats + ")" + suppressedNote(repeatsSuppressed));
+          repeats = 0;
+          repeatsSuppressed = 0;
+          lastPrintMicros = now;
+        }
+        continue;
+      }
+      // a different message, or a quiet period, ends a run of repeats
+      if (repeats > 0) {
+        System.out.println(previous + " (repeated x" + repeats + ")" + suppressedNote(repeatsSuppressed));
+        repeats = 0;
+        repeatsSuppressed = 0;
+      }
+      if (line != null) {
+        System.out.println(line + suppressedNote(message.suppressed));
+        lastPrintMicros = now;
+      }
+      previous = line;
+
+      final long totalDropped = dropped.get();
+      if (totalDropped != reportedDropped) {
+        System.out.println("Console : queue full : " + (totalDropped - reportedDropped) + " messages dropped");
+        reportedDropped = totalDropped;
+      }
+    }
+  }
+
+  private static String suppressedNote(int suppressed) {
+    return suppressed > 0 ? " (" + suppressed + " suppressed)" : "";
+  }
+}
@@ -0,0 +1,122 @@
+package frc.robot.utils;
+
+/**
+ * Angle and pose math on plain doubles, for control loops that run every
+ * cycle.
+ *
+ * Does the same as Rotation2d, Pose2d and MathUtil.angleModulus without
+ * allocating. The wraps skip the division when the angle is at most one turn
+ * out of range, which is nearly always the case for sums and differences of
+ * wrapped angles.
+ *
+ * Poses are {@code double[3]} arrays of x and y in meters and the heading in
+ * radians. Results go into an array given by the caller, which may be the
+ * input array.
+ */
+public class GeometryUtils {
+  public static final double TWO_PI = 2 * Math.PI;
+
+  /**
+   * Wraps an angle to -pi (inclusive) to pi (exclusive).
+   *
+   * @param angle angle in radians
+   * @return the same angle in the range -pi to pi
+   */
+  public static double wrap(double angle) {
+    if (angle >= -Math.PI && angle < Math.PI) {
+      return angle;
+    }
+    if (angle >= Math.PI && angle < 3 * Math.PI) {
+      return angle - TWO_PI;
+    }
+    if (angle < -Math.PI && angle >= -3 * Math.PI) {
+      return angle + TWO_PI;
+    }
+    return angle - TWO_PI * Math.floor((angle + Math.PI) / TWO_PI);
+  }
+
+  /**
+   * Wraps an angle to 0 (inclusive) to 2 pi (exclusive).
+   *
+   * @param angle angle in radians
+   * @return the same angle in the range 0 to 2 pi
+   */
+  public static double wrapPositive(double angle) {
+    if (angle >= 0 && angle < TWO_PI) {
+      return angle;
+    }
+    if (angle >= TWO_PI && angle < 2 * TWO_PI) {
+      return angle - TWO_PI;
+    }
+    if (angle < 0 && angle >= -TWO_PI) {
+      // a tiny negative angle rounds up to exactly 2 pi
+      final double wrapped = angle + TWO_PI;
+      return wrapped < TWO_PI ? wrapped : 0;
+    }
+    final double wrapped = angle - TWO_PI * Math.floor(angle / TWO_PI);
+    return wrapped < TWO_PI ? wrapped : 0;
+  }
+
+  /**
+   * @param a angle in radians
+   * @param b angle in radians
+   * @return the signed shortest turn from b to a, in radians from -pi to pi
+   */
+  public static double difference(double a, double b) {
+    return wrap(a - b);
+  }
+
+  /**
+   * @param a angle in radians
+   * @param b angle in radians
+   * @return the unsigned shortest turn between the angles, in radians from 0
+   *         to pi
+   */
+  public static double absDifference(double a, double b) {
+    return Math.abs(wrap(a - b));
+  }
+
+  /**
+   * Rotates a vector by an angle given as its cosine and sine, so the sine and
+   * cosine of one heading can be shared by every vector it rotates.
+   *
+   * @param x   vector x
+   * @param y   vector y
+   * @param cos cosine of the rotation
+   * @param sin sine of the rotation
+   * @param out filled with the rotated x and y
+   */
+  public static void rotate(double x, double y, double cos, double sin, double[] out) {
+    out[0] = x * cos - y * sin;
+    out[1] = x * sin + y * cos;
+  }
+
+  /**
+   * Moves a pose along a twist, the same as Pose2d.exp.
+   *
+   * @param pose   starting pose
+   * @param dx     forward distance in meters, robot relative
+   * @param dy     left distance in meters, robot relative
+   * @param dtheta rotation in radians
+   * @param out    filled with the new pose, may be the starting pose
+   */
+  public static void exp(double[] pose, double dx, double dy, double dtheta, double[] out) {
+    final double s;
+    final double c;
+    if (Math.abs(dtheta) < 1e-9) {
+      s = 1.0 - dtheta * dtheta / 6.0;
+      c = 0.5 * dtheta;
+    } else {
+      s = Math.sin(dtheta) / dtheta;
+      c = (1 - Math.cos(dtheta)) / dtheta;
+    }
+    final double tx = dx * s - dy * c;
+    final double ty = dx * c + dy * s;
+    final double heading = pose[2];
+    final double cos = Math.cos(heading);
+    final double sin = Math.sin(heading);
+    out[0] = pose[0] + tx * cos - ty * sin;
+    out[1] = pose[1] + tx * sin + ty * cos;
+    out[2] = wrap(heading + dtheta);
+  }
+}
@@ -0,0 +1,76 @@
+package frc.robot.utils;
+
+import frc.robot.constants.CANConstants;
+
+/**
+ * Skips motor output writes that would not change anything.
+ *
+ * A write goes through when the new value differs from the last written one
+ * by at least the threshold, when the output starts or stops (changes to or
+ * from exactly 0), or when the keep-alive period has passed since the last
+ * write. Everything else is suppressed, saving a CAN frame or JNI call.
+ *
+ * The keep-alive only resends a value a device may have lost, it is not
+ * frequent enough for MotorSafety. A motor with safety enabled has to be fed
+ * when its write is skipped, as below.
+ *
+ * <pre>
+ * if (!motor.isAlive()) {
+ *   gate.reset(); // motor safety stopped the motor, the last value is gone
+ * }
+ * if (gate.shouldWrite(speed)) {
+ *   motor.set(speed);
+ * } else {
+ *   motor.feed(); // needed for motors with safety enabled
+ * }
+ * </pre>
+ *
+ * One gate per output, not thread safe.
+ */
+public class OutputGate {
+  private final double threshold;
+  private final long keepAliveMicros;
+
+  private double lastValue = Double.NaN;
+  private long lastWriteMicros = 0;
+
+  /** @param threshold smallest change that is written straight away */
+  public OutputGate(double threshold) {
+    this(threshold, CANConstants.OUTPUT_KEEP_ALIVE);
+  }
+
+  /**
+   * @param threshold       smallest change that is written straight away
+   * @param keepAlivePeriod longest time in seconds between writes of an
+   *                        unchanged value
+   */
+  public OutputGate(double threshold, double keepAlivePeriod) {
+    this.threshold = threshold;
+    this.keepAliveMicros = (long) (keepAlivePeriod * 1e6);
+  }
+
+  /**
+   * @return true if the value should be written to the device, in which case
+   *         it is taken as the last written value
+   */
+  public boolean shouldWrite(double value) {
+    final long now = RobotClock.nowMicros();
+    final boolean changed = Double.isNaN(lastValue)
+        || Math.abs(value - lastValue) >= threshold
+        || ((value == 0) != (lastValue == 0));
+    if (!changed && now - lastWriteMicros < keepAliveMicros) {
+      return false;
+    }
+    lastValue = value;
+    lastWriteMicros = now;
+    return true;
+  }
+
+  /**
+   * Forces the next value to be written, eg after the motor was stopped
+   * without going through the gate.
+   */
+  public void reset() {
+    lastValue = Double.NaN;
+  }
+}
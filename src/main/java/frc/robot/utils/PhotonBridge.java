@@ -3,6 +3,7 @@ package frc.robot.utils;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.photonvision.EstimatedRobotPose;
 import org.photonvision.PhotonCamera;
@@ -12,23 +13,44 @@ import org.photonvision.simulation.PhotonCameraSim;
 import org.photonvision.simulation.SimCameraProperties;
 import org.photonvision.simulation.VisionSystemSim;
 import org.photonvision.targeting.PhotonPipelineResult;
+import org.photonvision.targeting.PhotonTrackedTarget;
 
 import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Rotation3d;
-import edu.wpi.first.math.geometry.Transform3d;
-import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.RobotBase;
 import frc.robot.constants.VisionConstants;
 
+/**
+ * Camera pose estimation, run on its own thread.
+ *
+ * The vision thread polls the camera at {@link VisionConstants#POLL_FREQUENCY}
+ * and runs the pose estimator once on each new pipeline result, going by its
+ * timestamp. The newest estimate waits in a single slot until the control loop
+ * takes it with {@link #takeEstimatedGlobalPose()}, so the loop never waits on
+ * the camera or the estimator and never sees the same frame twice.
+ */
 public class PhotonBridge {
+  private static final ConsoleLog.Source console = ConsoleLog.source("PhotonSub");
+
   private final AprilTagFieldLayout fieldLayout;
-  private final Transform3d robotToCam = new Transform3d(new Translation3d(0, 0, 0), new Rotation3d(0, 0, 0));
   private final PhotonCamera cam = new PhotonCamera(VisionConstants.PHOTON_CAMERA_NAME);
+  /** only used by the vision thread, or while holding its lock */
   private final PhotonPoseEstimator poseEstimator;
 
+  /** newest estimate not yet taken, replaced whole so neither side locks */
+  private final AtomicReference<EstimatedRobotPose> latestEstimate = new AtomicReference<>();
+  private volatile PhotonPipelineResult latestResult = new PhotonPipelineResult();
+  /** timestamp of the last result processed, only used by the vision thread */
+  private double lastResultTimestamp = Double.NaN;
+  private final Notifier visionNotifier = new Notifier(this::updateVision);
+
   // Simulation
   private VisionSystemSim visionSim;
   private SimCameraProperties camProps;
@@ -41,11 +63,12 @@ public class PhotonBridge {
       tempFieldLayout = AprilTagFieldLayout.loadFromResource(AprilTagFields.k2024Crescendo.m_resourceFile);
     } catch (IOException e) {
       tempFieldLayout = new AprilTagFieldLayout(List.of(), 0, 0);
-      System.out.println("PhotonSub : Error reading AprilTag field layout: " + e);
+      console.println("Error reading AprilTag field layout: " + e);
     }
 
     fieldLayout = tempFieldLayout;
-    poseEstimator = new PhotonPoseEstimator(fieldLayout, PoseStrategy.MULTI_TAG_PNP_ON_COPROCESSOR, cam, robotToCam);
+    poseEstimator = new PhotonPoseEstimator(fieldLayout, PoseStrategy.MULTI_TAG_PNP_ON_COPROCESSOR, cam,
+        VisionConstants.ROBOT_TO_CAM);
     poseEstimator.setMultiTagFallbackStrategy(PoseStrategy.LOWEST_AMBIGUITY);
 
     if (RobotBase.isSimulation()) {
@@ -62,32 +85,97 @@ public class PhotonBridge {
       camSim = new PhotonCameraSim(cam, camProps);
       camSim.enableProcessedStream(true);
 
-      // Our camera is mounted 0.1 meters forward and 0.5 meters up from the robot
-      // pose,
-      // (Robot pose is considered the center of rotation at the floor level, or Z =
-      // 0)
-      Translation3d robotToCameraTrl = new Translation3d(0.1, 0, 0.5);
-      // and pitched 15 degrees up.
-      Rotation3d robotToCameraRot = new Rotation3d(0, Math.toRadians(-15), 0);
-      Transform3d robotToCamera = new Transform3d(robotToCameraTrl, robotToCameraRot);
-
-      // Add this camera to the vision system simulation with the given
-      // robot-to-camera transform.
-      visionSim.addCamera(camSim, robotToCamera);
+      // Add this camera to the vision system simulation where it is mounted,
+      // the same transform the estimator uses
+      visionSim.addCamera(camSim, VisionConstants.ROBOT_TO_CAM);
     }
+
+    visionNotifier.setName("Vision");
+    visionNotifier.startPeriodic(1.0 / VisionConstants.POLL_FREQUENCY);
   }
 
-  public Optional<EstimatedRobotPose> getEstimatedGlobalPose() {
-    if (cam.isConnected()) {
-      return poseEstimator.update();
-    } else {
+  /**
+   * Polls the camera and estimates a pose from any new result.
+   *
+   * Runs on the vision thread.
+   */
+  private void updateVision() {
+    if (!cam.isConnected()) {
       // System.out.println("Photon Bridge Error: Camera Not Found");
+      return;
+    }
+    final PhotonPipelineResult result = cam.getLatestResult();
+    final double timestamp = result.getTimestampSeconds();
+    if (timestamp == lastResultTimestamp) {
+      return;
+    }
+    lastResultTimestamp = timestamp;
+    latestResult = result;
+
+    synchronized (poseEstimator) {
+      final Optional<EstimatedRobotPose> estimate = poseEstimator.update(result);
+      if (estimate.isPresent()) {
+        // an estimate the loop has not taken yet is older, so it is dropped
+        latestEstimate.set(estimate.get());
+      }
+    }
+  }
+
+  /**
+   * Takes the newest pose estimate from the vision thread. Each estimate is
+   * only returned once, so this is empty until the camera has a new frame.
+   * Never blocks.
+   *
+   * @return the estimate, empty if there is no new one
+   */
+  public Optional<EstimatedRobotPose> takeEstimatedGlobalPose() {
+    return Optional.ofNullable(latestEstimate.getAndSet(null));
+  }
+
+  /**
+   * Works out how much to trust a pose from {@link #takeEstimatedGlobalPose()}.
+   * Poses from several tags are trusted more than from one, and trust falls
+   * off with the average distance to the tags.
+   *
+   * @return standard deviations of x and y in meters and heading in radians,
+   *         empty if the pose should not be used at all
+   */
+  public Optional<Matrix<N3, N1>> getEstimationStdDevs(EstimatedRobotPose estimate) {
+    final Pose2d pose = estimate.estimatedPose.toPose2d();
+    if (pose.getX() < 0 || pose.getX() > fieldLayout.getFieldLength()
+        || pose.getY() < 0 || pose.getY() > fieldLayout.getFieldWidth()) {
+      return Optional.empty();
+    }
+
+    int tags = 0;
+    double totalDistance = 0;
+    double lowestAmbiguity = 1;
+    for (PhotonTrackedTarget target : estimate.targetsUsed) {
+      final Optional<Pose3d> tagPose = fieldLayout.getTagPose(target.getFiducialId());
+      if (tagPose.isEmpty()) {
+        continue;
+      }
+      tags++;
+      totalDistance += tagPose.get().toPose2d().getTranslation().getDistance(pose.getTranslation());
+      lowestAmbiguity = Math.min(lowestAmbiguity, target.getPoseAmbiguity());
+    }
+    if (tags == 0) {
       return Optional.empty();
     }
+    final double distance = totalDistance / tags;
+
+    // the fallback strategy lists every target seen, but only used the best one
+    final boolean multiTag = tags > 1 && estimate.strategy == PoseStrategy.MULTI_TAG_PNP_ON_COPROCESSOR;
+    if (!VisionFilter.isTrusted(multiTag, distance, lowestAmbiguity)) {
+      return Optional.empty();
+    }
+    final Matrix<N3, N1> stdDevs = multiTag ? VisionConstants.MULTI_TAG_STD_DEVS : VisionConstants.SINGLE_TAG_STD_DEVS;
+    return Optional.of(stdDevs.times(VisionFilter.stdDevScale(distance)));
   }
 
+  /** @return the newest pipeline result the vision thread has seen */
   public PhotonPipelineResult getLatestPipelineResult() {
-    return cam.getLatestResult();
+    return latestResult;
   }
 
   public void reset() {
@@ -95,8 +183,12 @@ public class PhotonBridge {
   }
 
   public void reset(Pose2d pose) {
-    poseEstimator.setLastPose(pose);
-    poseEstimator.setReferencePose(pose);
+    synchronized (poseEstimator) {
+      poseEstimator.setLastPose(pose);
+      poseEstimator.setReferencePose(pose);
+      // estimated from before the reset
+      latestEstimate.set(null);
+    }
   }
 
   public void simulationPeriodic(Pose2d pose) {
@@ -0,0 +1,201 @@
+package frc.robot.utils;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Fixed size history of timestamped poses and chassis speeds, for finding
+ * where the robot was at a past time.
+ *
+ * Samples are kept in a ring of primitive arrays, so adding one allocates
+ * nothing and the oldest is overwritten once full. Lookups binary search the
+ * timestamps and interpolate between the two samples either side.
+ *
+ * One thread at a time may add or clear (the caller keeps writers apart),
+ * while any number of threads read. Readers never lock: each write bumps a
+ * sequence number before and after, and a reader that sees it change, or
+ * odd, reads again. Lookups fill an array given by the caller with
+ * {x, y, heading, vx, vy, omega}, see {@link #get(double, double[])}.
+ */
+public class PoseHistory {
+  /** number of values a lookup fills */
+  public static final int SIZE = 6;
+
+  private final int capacity;
+  private final double[] times;
+  private final double[] x;
+  private final double[] y;
+  private final double[] heading;
+  private final double[] vx;
+  private final double[] vy;
+  private final double[] omega;
+
+  /** index the next sample is written to */
+  private int head = 0;
+  private int count = 0;
+  /** odd while a write is in progress */
+  private volatile long sequence = 0;
+
+  /** @param capacity number of samples kept */
+  public PoseHistory(int capacity) {
+    this.capacity = capacity;
+    times = new double[capacity];
+    x = new double[capacity];
+    y = new double[capacity];
+    heading = new double[capacity];
+    vx = new double[capacity];
+    vy = new double[capacity];
+    omega = new double[capacity];
+  }
+
+  /**
+   * Adds a sample, newer than every sample already added.
+   *
+   * @param time    robot clock time in seconds
+   * @param poseX   field x in meters
+   * @param poseY   field y in meters
+   * @param angle   heading in radians
+   * @param speedX  robot relative forward speed in m/s
+   * @param speedY  robot relative left speed in m/s
+   * @param rotation counterclockwise rotation speed in rad/s
+   */
+  public void add(double time, double poseX, double poseY, double angle,
+      double speedX, double speedY, double rotation) {
+    beginWrite();
+    times[head] = time;
+    x[head] = poseX;
+    y[head] = poseY;
+    heading[head] = angle;
+    vx[head] = speedX;
+    vy[head] = speedY;
+    omega[head] = rotation;
+    head = head + 1 == capacity ? 0 : head + 1;
+    if (count < capacity) {
+      count++;
+    }
+    endWrite();
+  }
+
+  /** Removes every sample, eg when the pose is reset and old poses no longer line up. */
+  public void clear() {
+    beginWrite();
+    head = 0;
+    count = 0;
+    endWrite();
+  }
+
+  private void beginWrite() {
+    sequence = sequence + 1;
+    // keeps the sample writes after the odd sequence number
+    VarHandle.storeStoreFence();
+  }
+
+  private void endWrite() {
+    // volatile write, so the sample writes are visible before the even number
+    sequence = sequence + 1;
+  }
+
+  /**
+   * Finds the pose and speeds at a time, interpolated between the samples
+   * either side. Times after the newest sample give the newest sample.
+   *
+   * @param time robot clock time in seconds
+   * @param out  filled with x and y in meters, heading in radians, robot
+   *             relative vx and vy in m/s and omega in rad/s
+   * @return false if the history is empty or does not go back that far. out
+   *         may still have been written to, by a read that raced a write and
+   *         was retried
+   */
+  public boolean get(double time, double[] out) {
+    while (true) {
+      final long before = sequence;
+      if ((before & 1) != 0) {
+        Thread.onSpinWait();
+        continue;
+      }
+      final boolean found = read(time, out);
+      // keeps the sample reads before the second sequence read
+      VarHandle.loadLoadFence();
+      if (sequence == before) {
+        return found;
+      }
+    }
+  }
+
+  /** @return time of the newest sample, NaN if there are none */
+  public double getNewestTime() {
+    while (true) {
+      final long before = sequence;
+      if ((before & 1) != 0) {
+        Thread.onSpinWait();
+        continue;
+      }
+      final int h = head;
+      final int n = count;
+      final double newest = n == 0 ? Double.NaN : times[index(h, n, n - 1)];
+      VarHandle.loadLoadFence();
+      if (sequence == before) {
+        return newest;
+      }
+    }
+  }
+
+  /**
+   * @param h head and n count, read once by the caller so a racing write
+   *          cannot make the index go out of bounds
+   * @return ring index of the i-th oldest sample
+   */
+  private int index(int h, int n, int i) {
+    final int index = h - n + i;
+    return index < 0 ? index + capacity : index;
+  }
+
+  /** Looks up a time without checking for writes, the result may be torn. */
+  private boolean read(double time, double[] out) {
+    final int h = head;
+    final int n = count;
+    if (n == 0) {
+      return false;
+    }
+    final int newest = index(h, n, n - 1);
+    if (time >= times[newest]) {
+      copy(newest, out);
+      return true;
+    }
+    if (time < times[index(h, n, 0)]) {
+      return false;
+    }
+
+    // first sample at or after the time, the one before it is earlier
+    int low = 1;
+    int high = n - 1;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (times[index(h, n, mid)] < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    final int after = index(h, n, low);
+    final int before = index(h, n, low - 1);
+    final double span = times[after] - times[before];
+    final double t = span > 0 ? (time - times[before]) / span : 1;
+
+    out[0] = x[before] + t * (x[after] - x[before]);
+    out[1] = y[before] + t * (y[after] - y[before]);
+    out[2] = GeometryUtils.wrap(heading[before] + t * GeometryUtils.difference(heading[after], heading[before]));
+    out[3] = vx[before] + t * (vx[after] - vx[before]);
+    out[4] = vy[before] + t * (vy[after] - vy[before]);
+    out[5] = omega[before] + t * (omega[after] - omega[before]);
+    return true;
+  }
+
+  private void copy(int index, double[] out) {
+    out[0] = x[index];
+    out[1] = y[index];
+    out[2] = heading[index];
+    out[3] = vx[index];
+    out[4] = vy[index];
+    out[5] = omega[index];
+  }
+}
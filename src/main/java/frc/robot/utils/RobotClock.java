@@ -0,0 +1,48 @@
+package frc.robot.utils;
+
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Robot-wide monotonic time base.
+ * 
+ * Everything that stamps data (loggers, events, odometry) should read time
+ * from here so all of it shares one zero: the FPGA clock, which counts
+ * microseconds from when the roboRIO booted and never jumps. Off robot,
+ * where the HAL is not loaded, it falls back to {@link System#nanoTime()}.
+ */
+public class RobotClock {
+  private static final boolean hasFPGA = checkFPGA();
+  private static final long fallbackZero = System.nanoTime();
+
+  /** wall clock time, in microseconds since the unix epoch, at which this clock read zero */
+  private static final long epochAnchorMicros = System.currentTimeMillis() * 1000 - nowMicros();
+
+  /** @return microseconds since the robot booted */
+  public static long nowMicros() {
+    return hasFPGA ? RobotController.getFPGATime() : (System.nanoTime() - fallbackZero) / 1000;
+  }
+
+  /** @return seconds since the robot booted */
+  public static double now() {
+    return nowMicros() * 1e-6;
+  }
+
+  /**
+   * Wall clock time at which this clock read zero. Add it to a timestamp to get
+   * an absolute time that can be lined up with logs from other boots.
+   * 
+   * @return microseconds since the unix epoch
+   */
+  public static long getEpochAnchorMicros() {
+    return epochAnchorMicros;
+  }
+
+  private static boolean checkFPGA() {
+    try {
+      RobotController.getFPGATime();
+      return true;
+    } catch (LinkageError e) {
+      return false;
+    }
+  }
+}
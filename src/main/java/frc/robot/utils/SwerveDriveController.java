@@ -0,0 +1,93 @@
+package frc.robot.utils;
+
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc.robot.constants.DriveConstants;
+
+/**
+ * The math of one {@link frc.robot.subsystems.DriveSub#drive} call, from the
+ * commanded speeds to the module setpoints, without the hardware.
+ *
+ * DriveSub passes in the heading and measured speeds of the loop and sends
+ * the result to its modules, the drive benchmark runs the same code on fixed
+ * values. Works on primitive arrays and keeps the rate limiting state, so an
+ * instance is single threaded and does not allocate.
+ */
+public class SwerveDriveController {
+  private final SwerveKinematics kinematics = new SwerveKinematics(
+      DriveConstants.FRONT_LEFT_MODULE_TRANSLATION,
+      DriveConstants.FRONT_RIGHT_MODULE_TRANSLATION,
+      DriveConstants.BACK_LEFT_MODULE_TRANSLATION,
+      DriveConstants.BACK_RIGHT_MODULE_TRANSLATION);
+
+  // Rate limiting within what the modules can do
+  private final SwerveSetpointGenerator setpointGenerator = new SwerveSetpointGenerator(
+      DriveConstants.MAX_SPEED,
+      DriveConstants.MAX_MODULE_ACCELERATION,
+      DriveConstants.MAX_STEER_VELOCITY,
+      DriveConstants.FRONT_LEFT_MODULE_TRANSLATION,
+      DriveConstants.FRONT_RIGHT_MODULE_TRANSLATION,
+      DriveConstants.BACK_LEFT_MODULE_TRANSLATION,
+      DriveConstants.BACK_RIGHT_MODULE_TRANSLATION);
+  private double lastDriveTime = 0;
+
+  // Scratch state reused every call
+  private final double[] robotSpeeds = new double[2];
+  private final double[] chassisSpeeds = new double[3];
+
+  /**
+   * Works out the module setpoints for the commanded speeds.
+   *
+   * @param xSpeed        forward speed, -1 to 1 of {@link DriveConstants#MAX_SPEED}
+   * @param ySpeed        left speed, -1 to 1 of {@link DriveConstants#MAX_SPEED}
+   * @param rot           rotation, -1 to 1 of
+   *                      {@link DriveConstants#MAX_ANGULAR_SPEED}
+   * @param fieldRelative whether x and y are relative to the field
+   * @param rateLimit     whether to limit acceleration and steering to what the
+   *                      modules can do, see {@link SwerveSetpointGenerator}
+   * @param headingCos    cosine of the robot heading, for field relative speeds
+   * @param headingSin    sine of the robot heading
+   * @param measuredVx    measured robot relative forward speed in m/s, rate
+   *                      limiting starts from the measured speeds after a pause
+   * @param measuredVy    measured robot relative left speed in m/s
+   * @param measuredOmega measured rotation speed in rad/s
+   * @param time          robot clock time in seconds
+   * @param speeds        filled with the module speeds in m/s
+   * @param angles        filled with the module angles in radians
+   */
+  public void drive(double xSpeed, double ySpeed, double rot, boolean fieldRelative, boolean rateLimit,
+      double headingCos, double headingSin, double measuredVx, double measuredVy, double measuredOmega,
+      double time, double[] speeds, double[] angles) {
+    // Convert the commanded speeds into the correct units for the drivetrain
+    final double xSpeedDelivered = xSpeed * DriveConstants.MAX_SPEED;
+    final double ySpeedDelivered = ySpeed * DriveConstants.MAX_SPEED;
+    final double rotDelivered = rot * DriveConstants.MAX_ANGULAR_SPEED;
+
+    if (fieldRelative) {
+      // rotate the field relative speeds back by the heading into the robot frame
+      GeometryUtils.rotate(xSpeedDelivered, ySpeedDelivered, headingCos, -headingSin, robotSpeeds);
+    } else {
+      robotSpeeds[0] = xSpeedDelivered;
+      robotSpeeds[1] = ySpeedDelivered;
+    }
+
+    final double elapsedTime = time - lastDriveTime;
+    lastDriveTime = time;
+
+    if (rateLimit) {
+      double dt = elapsedTime;
+      if (elapsedTime > DriveConstants.SETPOINT_RESET_PERIOD) {
+        // not driven for a while, so start from how the robot is actually moving,
+        // and only allow one loop's worth of change rather than the whole gap
+        setpointGenerator.reset(measuredVx, measuredVy, measuredOmega);
+        dt = TimedRobot.kDefaultPeriod;
+      }
+      setpointGenerator.generate(robotSpeeds[0], robotSpeeds[1], rotDelivered, dt, speeds, angles);
+    } else {
+      kinematics.toModuleStates(robotSpeeds[0], robotSpeeds[1], rotDelivered, speeds, angles);
+      SwerveKinematics.desaturate(speeds, DriveConstants.MAX_SPEED);
+      // so rate limited driving carries on from these setpoints
+      kinematics.toChassisSpeeds(speeds, angles, chassisSpeeds);
+      setpointGenerator.reset(chassisSpeeds[0], chassisSpeeds[1], chassisSpeeds[2], angles);
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package frc.robot.utils;
+
+import edu.wpi.first.math.geometry.Translation2d;
+
+/**
+ * Swerve kinematics for a fixed set of modules, working on primitive arrays.
+ *
+ * Gives the same results as WPILib's SwerveDriveKinematics, but the forward
+ * kinematics pseudo-inverse is solved once in the constructor, so each call
+ * is a handful of multiply-adds with no matrices or allocation.
+ *
+ * Like WPILib, {@link #toModuleStates} keeps each module's last angle when the
+ * robot is asked to stop, so the wheels do not snap back to 0. That state
+ * makes an instance single threaded.
+ */
+public class SwerveKinematics {
+  private final int count;
+  private final double[] moduleX;
+  private final double[] moduleY;
+  private final double[] headings;
+
+  // rows of the 3 x 2n pseudo-inverse, split into the x and y component columns
+  private final double[] vxFromX, vxFromY;
+  private final double[] vyFromX, vyFromY;
+  private final double[] omegaFromX, omegaFromY;
+
+  /** @param modules module positions relative to the robot center, in meters */
+  public SwerveKinematics(Translation2d... modules) {
+    if (modules.length < 2) {
+      throw new IllegalArgumentException("SwerveKinematics : at least two modules are needed");
+    }
+    count = modules.length;
+    moduleX = new double[count];
+    moduleY = new double[count];
+    headings = new double[count];
+    vxFromX = new double[count];
+    vxFromY = new double[count];
+    vyFromX = new double[count];
+    vyFromY = new double[count];
+    omegaFromX = new double[count];
+    omegaFromY = new double[count];
+
+    // each module gives two rows of A: [1, 0, -y] and [0, 1, x]
+    // the pseudo-inverse is (A^T A)^-1 A^T, with A^T A being
+    // | n    0    -sy |
+    // | 0    n     sx |
+    // | -sy  sx    sr |
+    double sx = 0, sy = 0, sr = 0;
+    for (int i = 0; i < count; i++) {
+      moduleX[i] = modules[i].getX();
+      moduleY[i] = modules[i].getY();
+      sx += moduleX[i];
+      sy += moduleY[i];
+      sr += moduleX[i] * moduleX[i] + moduleY[i] * moduleY[i];
+    }
+    final double n = count;
+    final double[][] m = {
+        { n, 0, -sy },
+        { 0, n, sx },
+        { -sy, sx, sr } };
+    final double[][] inv = invert3x3(m);
+
+    for (int i = 0; i < count; i++) {
+      // column of A^T for the x component is [1, 0, -y], for y is [0, 1, x]
+      vxFromX[i] = inv[0][0] - inv[0][2] * moduleY[i];
+      vxFromY[i] = inv[0][1] + inv[0][2] * moduleX[i];
+      vyFromX[i] = inv[1][0] - inv[1][2] * moduleY[i];
+      vyFromY[i] = inv[1][1] + inv[1][2] * moduleX[i];
+      omegaFromX[i] = inv[2][0] - inv[2][2] * moduleY[i];
+      omegaFromY[i] = inv[2][1] + inv[2][2] * moduleX[i];
+    }
+  }
+
+  private static double[][] invert3x3(double[][] m) {
+    final double c00 = m[1][1] * m[2][2] - m[1][2] * m[2][1];
+    final double c01 = m[1][2] * m[2][0] - m[1][0] * m[2][2];
+    final double c02 = m[1][0] * m[2][1] - m[1][1] * m[2][0];
+    final double det = m[0][0] * c00 + m[0][1] * c01 + m[0][2] * c02;
+    if (Math.abs(det) < 1e-12) {
+      throw new IllegalArgumentException("SwerveKinematics : module positions are degenerate");
+    }
+    return new double[][] {
+        { c00 / det, (m[0][2] * m[2][1] - m[0][1] * m[2][2]) / det, (m[0][1] * m[1][2] - m[0][2] * m[1][1]) / det },
+        { c01 / det, (m[0][0] * m[2][2] - m[0][2] * m[2][0]) / det, (m[0][2] * m[1][0] - m[0][0] * m[1][2]) / det },
+        { c02 / det, (m[0][1] * m[2][0] - m[0][0] * m[2][1]) / det, (m[0][0] * m[1][1] - m[0][1] * m[1][0]) / det } };
+  }
+
+  /** @return the number of modules */
+  public int getModuleCount() {
+    return count;
+  }
+
+  /**
+   * Converts robot relative chassis speeds into module states.
+   *
+   * @param vx     forward speed in m/s
+   * @param vy     left speed in m/s
+   * @param omega  counterclockwise rotation in rad/s
+   * @param speeds filled with the module speeds in m/s
+   * @param angles filled with the module angles in radians, -pi to pi
+   */
+  public void toModuleStates(double vx, double vy, double omega, double[] speeds, double[] angles) {
+    if (vx == 0 && vy == 0 && omega == 0) {
+      for (int i = 0; i < count; i++) {
+        speeds[i] = 0;
+        angles[i] = headings[i];
+      }
+      return;
+    }
+
+    for (int i = 0; i < count; i++) {
+      final double x = vx - omega * moduleY[i];
+      final double y = vy + omega * moduleX[i];
+      final double speed = Math.hypot(x, y);
+      speeds[i] = speed;
+      // matches Rotation2d, which is 0 when both components are ~0
+      headings[i] = speed > 1e-6 ? Math.atan2(y, x) : 0;
+      angles[i] = headings[i];
+    }
+  }
+
+  /**
+   * Converts module states into robot relative chassis speeds, using the
+   * least squares fit when the modules disagree.
+   *
+   * @param speeds  module speeds in m/s
+   * @param angles  module angles in radians
+   * @param chassis filled with vx, vy in m/s and omega in rad/s
+   */
+  public void toChassisSpeeds(double[] speeds, double[] angles, double[] chassis) {
+    double vx = 0, vy = 0, omega = 0;
+    for (int i = 0; i < count; i++) {
+      final double x = speeds[i] * Math.cos(angles[i]);
+      final double y = speeds[i] * Math.sin(angles[i]);
+      vx += vxFromX[i] * x + vxFromY[i] * y;
+      vy += vyFromX[i] * x + vyFromY[i] * y;
+      omega += omegaFromX[i] * x + omegaFromY[i] * y;
+    }
+    chassis[0] = vx;
+    chassis[1] = vy;
+    chassis[2] = omega;
+  }
+
+  /**
+   * Scales the module speeds down evenly so none is faster than the max.
+   *
+   * @param speeds   module speeds in m/s, changed in place
+   * @param maxSpeed fastest a module can go in m/s
+   */
+  public static void desaturate(double[] speeds, double maxSpeed) {
+    double fastest = 0;
+    for (int i = 0; i < speeds.length; i++) {
+      fastest = Math.max(fastest, Math.abs(speeds[i]));
+    }
+    if (fastest > maxSpeed) {
+      final double scale = maxSpeed / fastest;
+      for (int i = 0; i < speeds.length; i++) {
+        speeds[i] *= scale;
+      }
+    }
+  }
+}
@@ -16,13 +16,19 @@ import com.revrobotics.SparkPIDController;
 import com.revrobotics.CANSparkBase.ControlType;
 import com.revrobotics.CANSparkBase.IdleMode;
 import com.revrobotics.CANSparkLowLevel.MotorType;
+import com.revrobotics.CANSparkLowLevel.PeriodicFrame;
 import com.revrobotics.SparkAbsoluteEncoder.Type;
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
 import com.ctre.phoenix6.controls.VelocityVoltage;
 import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.NeutralModeValue;
 
+import frc.robot.constants.CANConstants;
 import frc.robot.constants.DriveConstants;
+import frc.robot.constants.LoggerConstants;
+import frc.robot.utils.logger.LogPolicy;
 import frc.robot.utils.logger.Logger;
 
 public class SwerveModule {
@@ -31,15 +37,30 @@ public class SwerveModule {
 
   private final AbsoluteEncoder turnEncoder;
 
+  private final StatusSignal<Double> drivePositionSignal;
+  private final StatusSignal<Double> driveVelocitySignal;
+
+  /**
+   * sensor values cached by updateCache(), every getter reads these. The
+   * constructor replaces this one, its NaN angle never matches a real one.
+   */
+  private volatile Sample sample = new Sample(0, 0, Double.NaN, 0, 0, new Rotation2d());
+
   private final VelocityVoltage driveController;
   private final SparkPIDController turnController;
 
-  private int lastOptimise = 0;
+  private final OutputGate driveGate = new OutputGate(CANConstants.DRIVE_VELOCITY_THRESHOLD);
+  private final OutputGate turnGate = new OutputGate(CANConstants.TURN_ANGLE_THRESHOLD);
+
+  private final SwerveOptimizer optimizer = new SwerveOptimizer();
 
   private double angularOffset = 0; //radians
-  private SwerveModuleState desiredState = new SwerveModuleState(0.0, new Rotation2d());
+  // last desired state, before the angular offset and optimisation
+  private double desiredSpeed = 0; // m/s
+  private double desiredAngle = 0; // radians
 
   private Logger logger;
+  private final double[] logValues = new double[4];
   /**
    * Constructs a new SwerveModule for a MAX Swerve Module housing a Falcon
    * driving motor and a Neo 550 Turning Motor.
@@ -51,7 +72,12 @@ public class SwerveModule {
   public SwerveModule(int drivingCANId, int turningCANId, double angularOffset) {
 
     // create loggger
-    logger = new Logger("swerve-" + drivingCANId, new String[] {"Pos", "Vel", "Ang", "Ang Rate"});
+    logger = new Logger("swerve-" + drivingCANId, new String[] {"Pos", "Vel", "Ang", "Ang Rate"},
+        new LogPolicy()
+            .withRate(LoggerConstants.SWERVE_LOG_RATE)
+            .withDeadband(LoggerConstants.SWERVE_LOG_DEADBAND)
+            .withHeartbeat(LoggerConstants.SWERVE_LOG_HEARTBEAT)
+            .withBurstRate(0));
 
     driveMotor = new TalonFX(drivingCANId);
     turnMotor = new CANSparkMax(turningCANId, MotorType.kBrushless);
@@ -80,6 +106,11 @@ public class SwerveModule {
     driveMotor.getConfigurator().apply(driveMotorConfig);
     driveController = new VelocityVoltage(0).withSlot(0);
 
+    drivePositionSignal = driveMotor.getPosition();
+    driveVelocitySignal = driveMotor.getVelocity();
+    CANProfile.configure(driveMotor, DriveConstants.ODOMETRY_FREQUENCY,
+        drivePositionSignal, driveVelocitySignal);
+
     // Configure Turn Motor
     turnMotor.restoreFactoryDefaults();
 
@@ -120,34 +151,143 @@ public class SwerveModule {
     turnMotor.setIdleMode(IdleMode.kBrake);
     turnMotor.setSmartCurrentLimit(30);
 
+    // only the absolute encoder position and velocity are read
+    CANProfile.configure(turnMotor, CANConstants.TURN_STATUS_PERIOD_MS,
+        PeriodicFrame.kStatus5, PeriodicFrame.kStatus6);
+
     // Save the SPARK MAX configurations. If a SPARK MAX browns out during
-    // operation, it will maintain the above configurations.
+    // operation, it will maintain the above configurations. Status frame periods
+    // are not saved, CANProfile sets them again after a reset.
     turnMotor.burnFlash();
 
-    desiredState.angle = new Rotation2d(turnEncoder.getPosition());
+    desiredAngle = turnEncoder.getPosition();
     driveMotor.setPosition(0);
+
+    BaseStatusSignal.refreshAll(drivePositionSignal, driveVelocitySignal);
+    updateCache();
   }
 
   /**
-   * Returns the current state of the module.
+   * Returns the drive motor status signals of the given modules, so they can
+   * all be refreshed with one call before {@link #updateCache()}.
+   */
+  public static BaseStatusSignal[] getSignals(SwerveModule... modules) {
+    final BaseStatusSignal[] signals = new BaseStatusSignal[modules.length * 2];
+    for (int i = 0; i < modules.length; i++) {
+      signals[i * 2] = modules[i].drivePositionSignal;
+      signals[i * 2 + 1] = modules[i].driveVelocitySignal;
+    }
+    return signals;
+  }
+
+  /**
+   * Sensor values of one module read together by {@link #updateCache()}.
+   * Replaced whole, so a reader on another thread never mixes values from
+   * different odometry cycles. That costs one small object per module per
+   * cycle, the only allocation left on the odometry path outside WPILib's
+   * estimator, which copies every module position into its own history.
+   */
+  public static class Sample {
+    public final double drivePosition;
+    public final double driveVelocity;
+    /** encoder angle in radians, the chassis angular offset still in it */
+    public final double turnAngle;
+    /** radians per second */
+    public final double turnVelocity;
+    /** module angle relative to the chassis in radians, -pi to pi, for kinematics */
+    public final double chassisAngle;
+    /** chassisAngle for {@link SwerveModulePosition} */
+    private final Rotation2d positionAngle;
+
+    private Sample(double drivePosition, double driveVelocity, double turnAngle, double turnVelocity,
+        double chassisAngle, Rotation2d positionAngle) {
+      this.drivePosition = drivePosition;
+      this.driveVelocity = driveVelocity;
+      this.turnAngle = turnAngle;
+      this.turnVelocity = turnVelocity;
+      this.chassisAngle = chassisAngle;
+      this.positionAngle = positionAngle;
+    }
+  }
+
+  /**
+   * Copies the latest sensor values into the cache read by the getters.
+   * Call once per odometry cycle, after the signals from
+   * {@link #getSignals(SwerveModule...)} have been refreshed.
+   */
+  public void updateCache() {
+    final Sample last = sample;
+    final double turnAngle = turnEncoder.getPosition();
+    // Apply chassis angular offset to the encoder position to get the
+    // position relative to the chassis, the reverse of setDesiredState.
+    final double chassisAngle = GeometryUtils.difference(turnAngle, angularOffset);
+    // Rotation2d is immutable, so it is only made again when the module turned
+    final Rotation2d positionAngle = turnAngle == last.turnAngle
+        ? last.positionAngle
+        : new Rotation2d(chassisAngle);
+    sample = new Sample(
+        BaseStatusSignal.getLatencyCompensatedValue(drivePositionSignal, driveVelocitySignal),
+        driveVelocitySignal.getValue(),
+        turnAngle,
+        turnEncoder.getVelocity(),
+        chassisAngle,
+        positionAngle);
+  }
+
+  /** @return the sensor values from the last {@link #updateCache()} */
+  public Sample getSample() {
+    return sample;
+  }
+
+  /**
+   * Returns the current state of the module. Allocates, so the robot loop
+   * reads {@link #getSample()} instead.
    *
    * @return The current state of the module.
    */
   public SwerveModuleState getState() {
     // Apply chassis angular offset to the encoder position to get the position
     // relative to the chassis.
+    final Sample current = sample;
     return new SwerveModuleState(
-        driveMotor.getVelocity().getValue(),
-        getRotation2d());
+        current.driveVelocity,
+        Rotation2d.fromRadians(current.turnAngle));
   }
 
   /**
-   * Returns the current desired state of the module
+   * Returns the current desired state of the module. Allocates, so the robot
+   * loop reads {@link #getDesiredSpeed()} and {@link #getDesiredAngle()}
+   * instead.
    * 
    * @return The current desired state of the module
    */
   public SwerveModuleState getDesiredState() {
-    return desiredState;
+    return new SwerveModuleState(desiredSpeed, new Rotation2d(desiredAngle));
+  }
+
+  /** @return the last desired speed in m/s */
+  public double getDesiredSpeed() {
+    return desiredSpeed;
+  }
+
+  /** @return the last desired angle in radians */
+  public double getDesiredAngle() {
+    return desiredAngle;
+  }
+
+  /** @return the drive wheel velocity in m/s */
+  public double getVelocity() {
+    return sample.driveVelocity;
+  }
+
+  /** @return the module angle in radians */
+  public double getAngle() {
+    return sample.turnAngle;
+  }
+
+  /** @return the distance driven, as used for the module position */
+  public double getDistance() {
+    return Math.abs(sample.drivePosition);
   }
 
   /**
@@ -156,12 +296,20 @@ public class SwerveModule {
    * @return The current position of the module.
    */
   public SwerveModulePosition getPosition() {
-    // Apply chassis angular offset to the encoder position to get the position
-    // relative to the chassis.
-    double angle = (getRotation2d().getRadians() - Math.toRadians(angularOffset)) % (2*Math.PI);
-    return new SwerveModulePosition(
-        Math.abs(driveMotor.getPosition().getValue())  ,// * angle > Math.PI ? -1 : 1,
-        new Rotation2d(angle));
+    final SwerveModulePosition position = new SwerveModulePosition();
+    getPosition(position);
+    return position;
+  }
+
+  /**
+   * Writes the current position of the module into an existing object, so a
+   * caller can reuse one position per module. Does not allocate, the angle is
+   * the one made by {@link #updateCache()}.
+   */
+  public void getPosition(SwerveModulePosition position) {
+    final Sample current = sample;
+    position.distanceMeters = Math.abs(current.drivePosition);// * angle > Math.PI ? -1 : 1,
+    position.angle = current.positionAngle;
   }
 
   /**
@@ -170,55 +318,55 @@ public class SwerveModule {
    * @param desiredState Desired state with speed and angle.
    */
   public void setDesiredState(SwerveModuleState desiredState) {
+    setDesiredState(desiredState.speedMetersPerSecond, desiredState.angle.getRadians());
+  }
+
+  /**
+   * Sets the desired state for the module without allocating.
+   *
+   * @param speedMetersPerSecond desired wheel speed
+   * @param angleRadians         desired module angle
+   */
+  public void setDesiredState(double speedMetersPerSecond, double angleRadians) {
     // Apply chassis angular offset to the desired state.
-    SwerveModuleState correctedDesiredState = new SwerveModuleState();
-    correctedDesiredState.speedMetersPerSecond = desiredState.speedMetersPerSecond;
-    correctedDesiredState.angle = desiredState.angle.plus(Rotation2d.fromRadians(angularOffset));
+    double speed = speedMetersPerSecond;
+    double angle = GeometryUtils.wrap(angleRadians + angularOffset);
 
+    final Sample current = sample;
     // Optimize the reference state to avoid spinning further than 90 degrees.
-    SwerveModuleState optimizedDesiredState = /*SwerveModuleState.*/optimize(
-        correctedDesiredState,
-        getRotation2d());
-
-    driveMotor.setControl(
-      driveController
-      .withVelocity(
-        // withVelocity accepts rps, not mps
-        optimizedDesiredState.speedMetersPerSecond / DriveConstants.WHEEL_CIRCUMFERENCE_METERS )
-        );//.withFeedForward(DriveConstants.DRIVING_FF));
+    if (optimizer.optimize(angle, current.turnAngle)) {
+      speed = -speed;
+      angle = GeometryUtils.wrap(angle + Math.PI);
+    }
+
+    if (driveGate.shouldWrite(speed)) {
+      driveMotor.setControl(
+        driveController
+        .withVelocity(
+          // withVelocity accepts rps, not mps
+          speed / DriveConstants.WHEEL_CIRCUMFERENCE_METERS )
+          );//.withFeedForward(DriveConstants.DRIVING_FF));
+    }
+    final double turnReference = angle + Math.PI;
+    if (turnGate.shouldWrite(turnReference)) {
       turnController.setReference(
-        optimizedDesiredState.angle.getRadians() + Math.PI,
+        turnReference,
         ControlType.kPosition);
+    }
             
-    this.desiredState = desiredState;
+    desiredSpeed = speedMetersPerSecond;
+    desiredAngle = angleRadians;
     
 
-    logger.log(new double[] {
-      driveMotor.getPosition().getValue(),
-      driveMotor.getVelocity().getValue(),
-      getRotation2d().getDegrees(),
-      turnEncoder.getVelocity() * (180/Math.PI)
-    });
+    logValues[0] = current.drivePosition;
+    logValues[1] = current.driveVelocity;
+    logValues[2] = Math.toDegrees(current.turnAngle);
+    logValues[3] = current.turnVelocity * (180/Math.PI);
+    logger.log(logValues);
 
   }
 
 
-  public SwerveModuleState optimize(SwerveModuleState desiredState, Rotation2d currentAngle) {
-    var delta = desiredState.angle.minus(currentAngle);
-    int limit = lastOptimise == 0 ? 90 : (lastOptimise>0 ? 135 : 45);
-
-    double error = Math.abs(delta.getDegrees());
-    if (error < limit) {
-      lastOptimise = error < 20 ? 0 : 1;
-      return new SwerveModuleState(
-          -desiredState.speedMetersPerSecond,
-          desiredState.angle.rotateBy(Rotation2d.fromDegrees(180.0)));
-    } else {
-      lastOptimise = error > 160 ? 0 : -1;
-      return new SwerveModuleState(desiredState.speedMetersPerSecond, desiredState.angle);
-    }
-  }
-
   /** Zeroes the drive encoder. */
   public void resetEncoders() {
     driveMotor.setPosition(0);
@@ -231,6 +379,6 @@ public class SwerveModule {
 
   public Rotation2d getRotation2d() {
     //take care, get position only returns as rotations when a scale factor is not set
-    return Rotation2d.fromRadians(turnEncoder.getPosition());
+    return Rotation2d.fromRadians(sample.turnAngle);
   }
 }
\ No newline at end of file
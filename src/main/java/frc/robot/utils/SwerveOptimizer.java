@@ -0,0 +1,31 @@
+package frc.robot.utils;
+
+/**
+ * Decides when a swerve module should drive backwards instead of turning the
+ * long way round, with hysteresis so it does not flip back and forth near the
+ * limit.
+ *
+ * One per module, not thread safe.
+ */
+public class SwerveOptimizer {
+  private int lastOptimise = 0;
+
+  /**
+   * @param desiredAngle desired module angle in radians
+   * @param currentAngle current module angle in radians
+   * @return true if the speed should be negated and the angle turned by 180
+   *         degrees
+   */
+  public boolean optimize(double desiredAngle, double currentAngle) {
+    int limit = lastOptimise == 0 ? 90 : (lastOptimise>0 ? 135 : 45);
+
+    double error = Math.toDegrees(GeometryUtils.absDifference(desiredAngle, currentAngle));
+    if (error < limit) {
+      lastOptimise = error < 20 ? 0 : 1;
+      return true;
+    } else {
+      lastOptimise = error > 160 ? 0 : -1;
+      return false;
+    }
+  }
+}
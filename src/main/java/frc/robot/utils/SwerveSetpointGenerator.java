@@ -0,0 +1,220 @@
+package frc.robot.utils;
+
+import edu.wpi.first.math.geometry.Translation2d;
+
+/**
+ * Limits chassis speed changes to what every swerve module can actually do.
+ *
+ * Each call moves the setpoint from the last chassis speeds towards the
+ * requested ones. The step is the largest fraction of the way that keeps every
+ * module within its drive acceleration and steering velocity limits, found by
+ * bisection for each module. Since module velocities are linear in the chassis
+ * speeds, every module reaches its part of the request at the same time and
+ * the robot follows a straight line through velocity space.
+ *
+ * A module is allowed to drive backwards, like {@link SwerveOptimizer} does,
+ * so reversing does not count as a 180 degree turn. A stopped module that
+ * needs to turn further than it can in one step turns in place first while
+ * the others wait, so it never drives off pointing the wrong way.
+ *
+ * Works on primitive arrays and keeps its own state, so an instance is single
+ * threaded.
+ */
+public class SwerveSetpointGenerator {
+  /** speeds below this are treated as stopped, in m/s */
+  private static final double STOPPED = 1e-6;
+  /** bisection steps, leaves the fraction within 1/1024 of the limit */
+  private static final int ITERATIONS = 10;
+
+  private final int count;
+  private final double[] moduleX;
+  private final double[] moduleY;
+  private final double maxSpeed;
+  private final double maxDriveAcceleration;
+  private final double maxSteerVelocity;
+
+  // last setpoint
+  private double setpointVx = 0;
+  private double setpointVy = 0;
+  private double setpointOmega = 0;
+  private final double[] setpointAngles;
+  /** turn in place target of each stopped module this step, NaN if none */
+  private final double[] steerInPlace;
+
+  /**
+   * @param maxSpeed             fastest a module can go in m/s
+   * @param maxDriveAcceleration fastest a module's speed can change in m/s^2
+   * @param maxSteerVelocity     fastest a module can turn in rad/s
+   * @param modules              module positions relative to the robot center
+   *                             in meters
+   */
+  public SwerveSetpointGenerator(double maxSpeed, double maxDriveAcceleration, double maxSteerVelocity,
+      Translation2d... modules) {
+    count = modules.length;
+    moduleX = new double[count];
+    moduleY = new double[count];
+    for (int i = 0; i < count; i++) {
+      moduleX[i] = modules[i].getX();
+      moduleY[i] = modules[i].getY();
+    }
+    this.maxSpeed = maxSpeed;
+    this.maxDriveAcceleration = maxDriveAcceleration;
+    this.maxSteerVelocity = maxSteerVelocity;
+    setpointAngles = new double[count];
+    steerInPlace = new double[count];
+  }
+
+  /**
+   * Starts the next step from the given chassis speeds, eg the measured speeds
+   * after the robot has not been driven for a while. Module angles are kept,
+   * as the modules stay where they were last pointed.
+   */
+  public void reset(double vx, double vy, double omega) {
+    setpointVx = vx;
+    setpointVy = vy;
+    setpointOmega = omega;
+  }
+
+  /**
+   * Takes the given module setpoints as the last step, for when the drive was
+   * commanded without the generator.
+   */
+  public void reset(double vx, double vy, double omega, double[] angles) {
+    reset(vx, vy, omega);
+    System.arraycopy(angles, 0, setpointAngles, 0, count);
+  }
+
+  /**
+   * Steps towards the requested robot relative chassis speeds.
+   *
+   * @param vx     requested forward speed in m/s
+   * @param vy     requested left speed in m/s
+   * @param omega  requested counterclockwise rotation in rad/s
+   * @param dt     time since the last step in seconds
+   * @param speeds filled with the module speeds in m/s
+   * @param angles filled with the module angles in radians
+   */
+  public void generate(double vx, double vy, double omega, double dt, double[] speeds, double[] angles) {
+    // scale the request down evenly if any module would be too fast
+    double fastest = 0;
+    for (int i = 0; i < count; i++) {
+      fastest = Math.max(fastest, Math.hypot(vx - omega * moduleY[i], vy + omega * moduleX[i]));
+    }
+    if (fastest > maxSpeed) {
+      final double scale = maxSpeed / fastest;
+      vx *= scale;
+      vy *= scale;
+      omega *= scale;
+    }
+
+    final double driveStep = maxDriveAcceleration * dt;
+    final double steerStep = maxSteerVelocity * dt;
+    double fraction = 1;
+
+    for (int i = 0; i < count; i++) {
+      steerInPlace[i] = Double.NaN;
+      final double startX = setpointVx - setpointOmega * moduleY[i];
+      final double startY = setpointVy + setpointOmega * moduleX[i];
+      final double goalX = vx - omega * moduleY[i];
+      final double goalY = vy + omega * moduleX[i];
+      final double startSpeed = Math.hypot(startX, startY);
+
+      if (startSpeed < STOPPED && Math.hypot(goalX, goalY) >= STOPPED) {
+        // a stopped module points straight at its goal as soon as it moves,
+        // so it has to turn there in place first
+        final double turn = reversibleDifference(Math.atan2(goalY, goalX), setpointAngles[i]);
+        if (Math.abs(turn) > steerStep) {
+          steerInPlace[i] = GeometryUtils.wrap(setpointAngles[i] + Math.copySign(steerStep, turn));
+          fraction = 0;
+        }
+      }
+      if (fraction == 0) {
+        continue;
+      }
+      if (!feasible(startX, startY, startSpeed, goalX, goalY, fraction, driveStep, steerStep)) {
+        // the fraction is feasible at 0, as nothing changes
+        double low = 0;
+        double high = fraction;
+        for (int j = 0; j < ITERATIONS; j++) {
+          final double mid = 0.5 * (low + high);
+          if (feasible(startX, startY, startSpeed, goalX, goalY, mid, driveStep, steerStep)) {
+            low = mid;
+          } else {
+            high = mid;
+          }
+        }
+        fraction = low;
+      }
+    }
+
+    setpointVx += fraction * (vx - setpointVx);
+    setpointVy += fraction * (vy - setpointVy);
+    setpointOmega += fraction * (omega - setpointOmega);
+
+    for (int i = 0; i < count; i++) {
+      final double x = setpointVx - setpointOmega * moduleY[i];
+      final double y = setpointVy + setpointOmega * moduleX[i];
+      final double speed = Math.hypot(x, y);
+      if (!Double.isNaN(steerInPlace[i])) {
+        speeds[i] = 0;
+        setpointAngles[i] = steerInPlace[i];
+      } else if (speed < STOPPED) {
+        // keep pointing the same way rather than snapping to 0
+        speeds[i] = 0;
+      } else {
+        speeds[i] = speed;
+        setpointAngles[i] = Math.atan2(y, x);
+      }
+      angles[i] = setpointAngles[i];
+    }
+  }
+
+  /** @return true if a module can get the given fraction of the way to its goal this step */
+  private static boolean feasible(double startX, double startY, double startSpeed,
+      double goalX, double goalY, double fraction, double driveStep, double steerStep) {
+    final double x = startX + fraction * (goalX - startX);
+    final double y = startY + fraction * (goalY - startY);
+    final double speed = Math.hypot(x, y);
+    // speed along the way the module was driving, so reversing has to slow
+    // down through 0 rather than jumping straight to the same speed backwards
+    final double signedSpeed = x * startX + y * startY < 0 ? -speed : speed;
+    if (Math.abs(signedSpeed - startSpeed) > driveStep) {
+      return false;
+    }
+    if (speed < STOPPED || startSpeed < STOPPED) {
+      // the heading does not matter while stopped, turning in place is handled separately
+      return true;
+    }
+    return Math.abs(reversibleDifference(Math.atan2(y, x), Math.atan2(startY, startX))) <= steerStep;
+  }
+
+  /**
+   * @return the shortest turn from b to a in radians, either to a itself or
+   *         to its opposite for a module driving backwards
+   */
+  private static double reversibleDifference(double a, double b) {
+    final double turn = GeometryUtils.difference(a, b);
+    if (turn > Math.PI / 2) {
+      return turn - Math.PI;
+    }
+    if (turn < -Math.PI / 2) {
+      return turn + Math.PI;
+    }
+    return turn;
+  }
+
+  /** @return forward speed of the last setpoint in m/s */
+  public double getVx() {
+    return setpointVx;
+  }
+
+  /** @return left speed of the last setpoint in m/s */
+  public double getVy() {
+    return setpointVy;
+  }
+
+  /** @return counterclockwise rotation of the last setpoint in rad/s */
+  public double getOmega() {
+    return setpointOmega;
+  }
+}
@@ -70,8 +70,7 @@ public class SwerveUtils {
    *         radians).
    */
   public static double AngleDifference(double _angleA, double _angleB) {
-    double difference = Math.abs(_angleA - _angleB);
-    return difference > Math.PI ? (2 * Math.PI) - difference : difference;
+    return GeometryUtils.absDifference(_angleA, _angleB);
   }
 
   /**
@@ -82,17 +81,6 @@ public class SwerveUtils {
    * @return An angle (in radians) from 0 and 2*PI (exclusive).
    */
   public static double WrapAngle(double _angle) {
-    double twoPi = 2 * Math.PI;
-
-    if (_angle == twoPi) { // Handle this case separately to avoid floating point errors with the floor
-                           // after the division in the case below
-      return 0.0;
-    } else if (_angle > twoPi) {
-      return _angle - twoPi * Math.floor(_angle / twoPi);
-    } else if (_angle < 0.0) {
-      return _angle + twoPi * (Math.floor((-_angle) / twoPi) + 1);
-    } else {
-      return _angle;
-    }
+    return GeometryUtils.wrapPositive(_angle);
   }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package frc.robot.utils;
+
+import frc.robot.constants.VisionConstants;
+
+/**
+ * The checks a camera pose estimate goes through before it is added to the
+ * pose estimate, on plain doubles so they run without a camera or a drive.
+ *
+ * Poses are {@code double[3]} arrays of x and y in meters and the heading in
+ * radians, as in {@link GeometryUtils}.
+ */
+public class VisionFilter {
+  /**
+   * Moves a past odometry pose so it agrees with the current estimate: the
+   * estimate taken back by how far odometry says the robot moved since.
+   *
+   * @param past     odometry pose at the past time, overwritten with the result
+   * @param odometry odometry pose now
+   * @param estimate estimated pose now
+   */
+  public static void alignToEstimate(double[] past, double[] odometry, double[] estimate) {
+    // past pose relative to the odometry pose now
+    final double cos = Math.cos(odometry[2]);
+    final double sin = Math.sin(odometry[2]);
+    final double dx = past[0] - odometry[0];
+    final double dy = past[1] - odometry[1];
+    final double relativeX = dx * cos + dy * sin;
+    final double relativeY = -dx * sin + dy * cos;
+    final double relativeHeading = GeometryUtils.difference(past[2], odometry[2]);
+
+    // the same relative pose from the estimate
+    final double estimateCos = Math.cos(estimate[2]);
+    final double estimateSin = Math.sin(estimate[2]);
+    past[0] = estimate[0] + relativeX * estimateCos - relativeY * estimateSin;
+    past[1] = estimate[1] + relativeX * estimateSin + relativeY * estimateCos;
+    past[2] = GeometryUtils.wrap(estimate[2] + relativeHeading);
+  }
+
+  /**
+   * @param x         camera pose x in meters
+   * @param y         camera pose y in meters
+   * @param reference estimated pose when the camera frame was taken
+   * @return true if the camera pose is within
+   *         {@link VisionConstants#MAX_POSE_ERROR} of the reference
+   */
+  public static boolean isNearReference(double x, double y, double[] reference) {
+    return Math.hypot(x - reference[0], y - reference[1]) <= VisionConstants.MAX_POSE_ERROR;
+  }
+
+  /**
+   * @param multiTag  true if the pose was solved from several tags at once
+   * @param distance  average distance to the tags in meters
+   * @param ambiguity lowest pose ambiguity of the tags, 0 to 1
+   * @return true if the pose can be used at all, single tag poses have to be
+   *         close and unambiguous
+   */
+  public static boolean isTrusted(boolean multiTag, double distance, double ambiguity) {
+    return multiTag
+        || (distance <= VisionConstants.MAX_SINGLE_TAG_DISTANCE && ambiguity <= VisionConstants.MAX_AMBIGUITY);
+  }
+
+  /**
+   * @param distance average distance to the tags in meters
+   * @return what the standard deviations at 0 distance are multiplied by
+   */
+  public static double stdDevScale(double distance) {
+    return 1 + distance * distance / VisionConstants.STD_DEV_DISTANCE_SCALE;
+  }
+}
@@ -0,0 +1,68 @@
+package frc.robot.utils.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import frc.robot.constants.LoggerConstants;
+
+/**
+ * Writes log rows in the binary format described by {@link LogFormat}.
+ * 
+ * The file channel and the direct buffer are opened once and reused for
+ * every save, so a save is a handful of bulk copies and one write call.
+ * A sparse {@link LogIndex} is written alongside.
+ */
+public class BinaryLogWriter implements LogWriter {
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(LoggerConstants.WRITE_BUFFER_BYTES)
+      .order(ByteOrder.LITTLE_ENDIAN);
+  private final LogIndex.Writer index;
+  /** bytes already handed to the channel */
+  private long written = 0;
+
+  public BinaryLogWriter(File file) throws IOException {
+    channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    index = new LogIndex.Writer(file);
+  }
+
+  @Override
+  public void writeHeader(String[] columns, long epochAnchorMicros) throws IOException {
+    flush();
+    ByteBuffer header = LogFormat.encodeHeader(columns, (short) 0, -1, epochAnchorMicros);
+    while (header.hasRemaining()) {
+      written += channel.write(header);
+    }
+  }
+
+  @Override
+  public void writeRow(double[] row) throws IOException {
+    if (buffer.remaining() < LogFormat.frameSize(row.length)) {
+      flush();
+    }
+    index.frame(row[0], written + buffer.position());
+    for (int i = 0; i < row.length; i++) {
+      buffer.putDouble(row[i]);
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      written += channel.write(buffer);
+    }
+    buffer.clear();
+    index.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+    channel.close();
+    index.close();
+  }
+}
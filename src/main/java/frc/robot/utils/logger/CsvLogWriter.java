@@ -0,0 +1,55 @@
+package frc.robot.utils.logger;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Writes log rows as comma separated text through a single reused writer.
+ * 
+ * The epoch anchor is not stored, CSV files keep the plain layout the
+ * analysis scripts read.
+ */
+public class CsvLogWriter implements LogWriter {
+  private final BufferedWriter writer;
+  private final StringBuilder line = new StringBuilder(256);
+
+  public CsvLogWriter(File file) throws IOException {
+    writer = new BufferedWriter(new FileWriter(file));
+  }
+
+  @Override
+  public void writeHeader(String[] columns, long epochAnchorMicros) throws IOException {
+    line.setLength(0);
+    for (int i = 0; i < columns.length; i++) {
+      if (i != 0) {
+        line.append(", ");
+      }
+      line.append(columns[i]);
+    }
+    writer.append(line).write(System.lineSeparator());
+  }
+
+  @Override
+  public void writeRow(double[] row) throws IOException {
+    line.setLength(0);
+    for (int i = 0; i < row.length; i++) {
+      if (i != 0) {
+        line.append(", ");
+      }
+      line.append(row[i]);
+    }
+    writer.append(line).write(System.lineSeparator());
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+}
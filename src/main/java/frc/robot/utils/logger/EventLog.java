@@ -0,0 +1,106 @@
+package frc.robot.utils.logger;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import frc.robot.constants.LoggerConstants;
+
+/**
+ * Discrete robot events (mode changes, failures, device warnings) recorded on
+ * the same timeline as the numeric loggers.
+ * 
+ * Events are registered once, usually as a static field, which interns the
+ * name to an integer id:
+ * 
+ * <pre>
+ * private static final EventLog.Event TRAJECTORY_FAILED = EventLog.register("Trajectory Failed");
+ * ...
+ * TRAJECTORY_FAILED.record(targetX, targetY);
+ * </pre>
+ * 
+ * Recording fills a reused {@link LogRow} and queues it on the events logger,
+ * so it costs about as much as any other log row. The id to name table is
+ * written to {@code events-names.csv} next to the log as events are
+ * registered.
+ */
+public class EventLog {
+  private static final ConcurrentHashMap<String, Event> events = new ConcurrentHashMap<>();
+  // kept while disabled, so events before the match are not lost
+  private static final Logger logger = new Logger("events", payloadColumns(), new LogPolicy().withAlwaysOn());
+  private static final LogRow row = new LogRow(LoggerConstants.EVENT_PAYLOAD_SIZE);
+
+  /** A registered event type. */
+  public static class Event {
+    public final int id;
+    public final String name;
+
+    private Event(int id, String name) {
+      this.id = id;
+      this.name = name;
+    }
+
+    public void record() {
+      EventLog.record(id, Double.NaN, Double.NaN, Double.NaN);
+    }
+
+    public void record(double a) {
+      EventLog.record(id, a, Double.NaN, Double.NaN);
+    }
+
+    public void record(double a, double b) {
+      EventLog.record(id, a, b, Double.NaN);
+    }
+
+    public void record(double a, double b, double c) {
+      EventLog.record(id, a, b, c);
+    }
+  }
+
+  /**
+   * Interns an event name. Registering the same name twice returns the same
+   * event.
+   */
+  public static synchronized Event register(String name) {
+    return events.computeIfAbsent(name, (key) -> {
+      Event event = new Event(events.size(), key);
+      writeName(event);
+      return event;
+    });
+  }
+
+  /**
+   * Records an event. Safe to call from any thread, producers only contend
+   * with each other, never with the writer thread.
+   */
+  private static synchronized void record(int id, double a, double b, double c) {
+    row.set(id, a, b, c);
+    logger.log(row.getTime(), row.getValues());
+  }
+
+  private static String[] payloadColumns() {
+    String[] columns = new String[LoggerConstants.EVENT_PAYLOAD_SIZE + 1];
+    columns[0] = "Event";
+    for (int i = 1; i < columns.length; i++) {
+      columns[i] = "Payload " + i;
+    }
+    return columns;
+  }
+
+  private static void writeName(Event event) {
+    File log = logger.getFile();
+    if (log == null) {
+      return;
+    }
+    File names = new File(log.getParentFile(), "events-names" + LogFormat.CSV_EXTENSION);
+    try (FileWriter writer = new FileWriter(names, true)) {
+      if (event.id == 0) {
+        writer.write("Id, Name" + System.lineSeparator());
+      }
+      writer.write(event.id + ", " + event.name + System.lineSeparator());
+    } catch (IOException e) {
+      System.out.println("[Event Log] Name Save Failed : " + event.name + " : " + e);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package frc.robot.utils.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated single-producer / single-consumer ring of log rows.
+ *
+ * Rows are stored back to back in one primitive array, so neither side
+ * allocates or locks. The producer (robot loop) never waits: if the ring is
+ * full the row is dropped and counted instead.
+ */
+public class LogBuffer {
+  private final double[] data;
+  private final int rowWidth;
+  private final int capacity;
+  private final int mask;
+
+  /** index of the next row to be read, only advanced by the consumer */
+  private final AtomicLong head = new AtomicLong();
+  /** index of the next row to be written, only advanced by the producer */
+  private final AtomicLong tail = new AtomicLong();
+  /** rows rejected because the ring was full */
+  private final AtomicLong dropped = new AtomicLong();
+
+  /**
+   * @param capacity number of rows held, rounded up to a power of two
+   * @param rowWidth number of doubles per row (including the timestamp)
+   */
+  public LogBuffer(int capacity, int rowWidth) {
+    if (capacity < 1 || rowWidth < 1) {
+      throw new IllegalArgumentException("LogBuffer : capacity and row width must be > 0");
+    }
+    int size = 1;
+    while (size < capacity) {
+      size <<= 1;
+    }
+    this.capacity = size;
+    this.mask = this.capacity - 1;
+    this.rowWidth = rowWidth;
+    this.data = new double[this.capacity * rowWidth];
+  }
+
+  /**
+   * Adds a row to the ring. Producer side only.
+   *
+   * @param time   timestamp stored in the first slot of the row
+   * @param values remaining row values, missing values are filled with NaN
+   * @return false if the ring was full and the row was dropped
+   */
+  public boolean offer(double time, double[] values) {
+    final long t = tail.get();
+    if (t - head.get() >= capacity) {
+      dropped.incrementAndGet();
+      return false;
+    }
+
+    final int base = (int) (t & mask) * rowWidth;
+    data[base] = time;
+    final int count = Math.min(values.length, rowWidth - 1);
+    System.arraycopy(values, 0, data, base + 1, count);
+    for (int i = count + 1; i < rowWidth; i++) {
+      data[base + i] = Double.NaN;
+    }
+
+    tail.lazySet(t + 1);
+    return true;
+  }
+
+  /**
+   * Removes the oldest row from the ring. Consumer side only.
+   *
+   * @param row destination, must be at least {@link #getRowWidth()} long
+   * @return false if the ring was empty
+   */
+  public boolean poll(double[] row) {
+    final long h = head.get();
+    if (h == tail.get()) {
+      return false;
+    }
+
+    System.arraycopy(data, (int) (h & mask) * rowWidth, row, 0, rowWidth);
+
+    head.lazySet(h + 1);
+    return true;
+  }
+
+  /** discards every queued row. Consumer side only. */
+  public void clear() {
+    head.lazySet(tail.get());
+  }
+
+  public boolean isEmpty() {
+    return head.get() == tail.get();
+  }
+
+  /** @return approximate number of rows waiting to be read */
+  public int size() {
+    return (int) (tail.get() - head.get());
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public int getRowWidth() {
+    return rowWidth;
+  }
+
+  /** @return total rows dropped because the ring was full */
+  public long getDropped() {
+    return dropped.get();
+  }
+}
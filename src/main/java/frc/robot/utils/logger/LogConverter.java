@@ -0,0 +1,69 @@
+package frc.robot.utils.logger;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Offline tool that converts binary logs back into the CSV layout the
+ * analysis scripts expect. Files are streamed frame by frame, so log size is
+ * not limited by memory.
+ * 
+ * <pre>
+ * ./gradlew logToCsv --args="path/to/LogFile_(0)"
+ * </pre>
+ * 
+ * Each argument may be a .bin file or a folder, folders are searched
+ * recursively. The CSV is written next to the source file.
+ */
+public class LogConverter {
+  public static void main(String[] args) {
+    if (args.length == 0) {
+      System.out.println("Usage : LogConverter <log" + LogFormat.BINARY_EXTENSION + " | folder>...");
+      return;
+    }
+    for (String arg : args) {
+      convertAll(new File(arg));
+    }
+  }
+
+  private static void convertAll(File file) {
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+      if (children == null) {
+        return;
+      }
+      for (File child : children) {
+        convertAll(child);
+      }
+    } else if (file.getName().endsWith(LogFormat.BINARY_EXTENSION)) {
+      String name = file.getPath();
+      File out = new File(name.substring(0, name.length() - LogFormat.BINARY_EXTENSION.length())
+          + LogFormat.CSV_EXTENSION);
+      try {
+        long rows = convert(file, out);
+        System.out.println("LogConverter : " + file + " -> " + out + " : " + rows + " rows");
+      } catch (IOException e) {
+        System.out.println("LogConverter : " + file + " : Conversion Failed : " + e);
+      }
+    }
+  }
+
+  /**
+   * Streams one binary log into a CSV file.
+   * 
+   * @return number of rows written
+   */
+  public static long convert(File in, File out) throws IOException {
+    long rows = 0;
+    try (LogReader reader = new LogReader(in);
+        CsvLogWriter writer = new CsvLogWriter(out)) {
+      double[] row = new double[reader.getColumns().length];
+      writer.writeHeader(reader.getColumns(), reader.getEpochAnchorMicros());
+      while (reader.next(row)) {
+        writer.writeRow(row);
+        rows++;
+      }
+    }
+    return rows;
+  }
+}
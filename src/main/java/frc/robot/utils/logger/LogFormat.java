@@ -0,0 +1,73 @@
+package frc.robot.utils.logger;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout of the binary log files (.bin).
+ * 
+ * <pre>
+ * header : "EMUL" magic, u16 version, u16 flags, i64 committed bytes,
+ *          i64 epoch anchor, u16 column count,
+ *          then per column a u16 byte length and the UTF-8 name
+ * frames : one little-endian double per column, time first,
+ *          followed by a u32 CRC32C of the frame when FLAG_CHECKSUM is set
+ * </pre>
+ * 
+ * The committed field is a watermark: every frame before that offset is known
+ * to be on disk. It is -1 for files that are only ever appended to.
+ * 
+ * Time is in seconds on the shared {@link frc.robot.utils.RobotClock} base.
+ * The epoch anchor is the wall clock time, in microseconds since the unix
+ * epoch, at which that clock read zero.
+ */
+public class LogFormat {
+  public static final byte[] MAGIC = { 'E', 'M', 'U', 'L' };
+  public static final short VERSION = 3;
+
+  /** frames are followed by a CRC32C checksum */
+  public static final short FLAG_CHECKSUM = 1;
+
+  /** offset of the committed watermark in the header */
+  public static final int COMMITTED_OFFSET = 8;
+  /** offset of the epoch anchor in the header */
+  public static final int ANCHOR_OFFSET = COMMITTED_OFFSET + Long.BYTES;
+  /** size of the header before the column names */
+  public static final int FIXED_HEADER_SIZE = ANCHOR_OFFSET + Long.BYTES + Short.BYTES;
+
+  public static final String BINARY_EXTENSION = ".bin";
+  public static final String CSV_EXTENSION = ".csv";
+
+  /** @return size of the header in bytes for the given columns */
+  public static int headerSize(String[] columns) {
+    int size = FIXED_HEADER_SIZE;
+    for (String column : columns) {
+      size += Short.BYTES + column.getBytes(StandardCharsets.UTF_8).length;
+    }
+    return size;
+  }
+
+  /** Encodes the header into a new little-endian buffer, ready to be written. */
+  public static ByteBuffer encodeHeader(String[] columns, short flags, long committed, long epochAnchorMicros) {
+    ByteBuffer header = ByteBuffer.allocate(headerSize(columns)).order(ByteOrder.LITTLE_ENDIAN);
+    header.put(MAGIC);
+    header.putShort(VERSION);
+    header.putShort(flags);
+    header.putLong(committed);
+    header.putLong(epochAnchorMicros);
+    header.putShort((short) columns.length);
+    for (String column : columns) {
+      byte[] name = column.getBytes(StandardCharsets.UTF_8);
+      header.putShort((short) name.length);
+      header.put(name);
+    }
+    header.flip();
+    return header;
+  }
+
+  /** @return size of one frame's values in bytes, not including any checksum */
+  public static int frameSize(int columnCount) {
+    return columnCount * Double.BYTES;
+  }
+}
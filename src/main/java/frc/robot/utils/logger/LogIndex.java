@@ -0,0 +1,178 @@
+package frc.robot.utils.logger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import frc.robot.constants.LoggerConstants;
+
+/**
+ * Sparse time index kept next to a binary log ({@code <name>.idx}).
+ * 
+ * <pre>
+ * header  : "EMUI" magic, u16 version
+ * entries : f64 frame time, i64 frame offset in the log, little-endian
+ * </pre>
+ * 
+ * One entry is written every {@link LoggerConstants#INDEX_INTERVAL} frames,
+ * so finding a time only needs a binary search here and a short scan in the
+ * log.
+ */
+public class LogIndex {
+  public static final byte[] MAGIC = { 'E', 'M', 'U', 'I' };
+  public static final short VERSION = 1;
+  public static final String EXTENSION = ".idx";
+
+  private static final int HEADER_SIZE = MAGIC.length + Short.BYTES;
+  private static final int ENTRY_SIZE = Double.BYTES + Long.BYTES;
+
+  private final double[] times;
+  private final long[] offsets;
+
+  private LogIndex(double[] times, long[] offsets) {
+    this.times = times;
+    this.offsets = offsets;
+  }
+
+  /** @return the index file that belongs to a log file */
+  public static File indexFile(File log) {
+    String path = log.getPath();
+    if (path.endsWith(LogFormat.BINARY_EXTENSION)) {
+      path = path.substring(0, path.length() - LogFormat.BINARY_EXTENSION.length());
+    }
+    return new File(path + EXTENSION);
+  }
+
+  /**
+   * Loads the index of a log. A missing or unreadable index gives an empty
+   * index, which makes queries scan from the first frame.
+   */
+  public static LogIndex load(File log) {
+    File file = indexFile(log);
+    if (!file.exists()) {
+      return new LogIndex(new double[0], new long[0]);
+    }
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer data = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+      while (data.hasRemaining() && channel.read(data) >= 0) {
+      }
+      data.flip();
+
+      byte[] magic = new byte[MAGIC.length];
+      if (data.remaining() < HEADER_SIZE) {
+        throw new IOException("index is truncated");
+      }
+      data.get(magic);
+      if (!Arrays.equals(magic, MAGIC) || data.getShort() != VERSION) {
+        throw new IOException("not a log index");
+      }
+
+      int count = data.remaining() / ENTRY_SIZE;
+      double[] times = new double[count];
+      long[] offsets = new long[count];
+      for (int i = 0; i < count; i++) {
+        times[i] = data.getDouble();
+        offsets[i] = data.getLong();
+      }
+      return new LogIndex(times, offsets);
+    } catch (IOException e) {
+      System.out.println("[Log Index] " + file + " : Load Failed : " + e);
+      return new LogIndex(new double[0], new long[0]);
+    }
+  }
+
+  public int size() {
+    return times.length;
+  }
+
+  /**
+   * @return offset of the last indexed frame at or before {@code time}, or -1
+   *         if the time is before the first entry
+   */
+  public long floorOffset(double time) {
+    final int found = countBefore(time, true) - 1;
+    return found < 0 ? -1 : offsets[found];
+  }
+
+  /**
+   * Binary search of the entry times, which are in order.
+   *
+   * @param inclusive whether entries exactly at {@code time} are counted
+   * @return number of entries before {@code time}
+   */
+  private int countBefore(double time, boolean inclusive) {
+    int low = 0;
+    int high = times.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (times[mid] < time || (inclusive && times[mid] == time)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** @return time of the first indexed frame, or NaN if the index is empty */
+  public double firstTime() {
+    return times.length == 0 ? Double.NaN : times[0];
+  }
+
+  /**
+   * Number of frames between two times, rounded out to whole index intervals.
+   * Only an estimate, used to size query results.
+   */
+  public int estimateFrames(double start, double end) {
+    final int count = Math.max(0, countBefore(end, true) - countBefore(start, false));
+    return (count + 1) * LoggerConstants.INDEX_INTERVAL;
+  }
+
+  /** Writes the index of a log as its frames are written. */
+  public static class Writer implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(64 * ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private long frames = 0;
+
+    public Writer(File log) throws IOException {
+      channel = FileChannel.open(indexFile(log).toPath(), StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+      buffer.put(MAGIC);
+      buffer.putShort(VERSION);
+    }
+
+    /**
+     * Called for every frame written to the log, keeps every
+     * {@link LoggerConstants#INDEX_INTERVAL}th one.
+     */
+    public void frame(double time, long offset) throws IOException {
+      if (frames++ % LoggerConstants.INDEX_INTERVAL != 0) {
+        return;
+      }
+      if (buffer.remaining() < ENTRY_SIZE) {
+        flush();
+      }
+      buffer.putDouble(time);
+      buffer.putLong(offset);
+    }
+
+    public void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+      flush();
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package frc.robot.utils.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Offline tool that merges every channel of a session (one LogFile_(n)
+ * folder) into a single wide, time-aligned table.
+ * 
+ * <pre>
+ * ./gradlew mergeLogs --args="path/to/LogFile_(0) [out.csv | out.bin] [period seconds]"
+ * </pre>
+ * 
+ * Channels are read as streams and merged on timestamp with a priority queue,
+ * so memory use only depends on the number of columns, not on the length of
+ * the session. Each output row holds the latest value of every channel. With
+ * a period the table is resampled to that fixed rate, without one a row is
+ * written for every distinct timestamp in the session.
+ */
+public class LogMerger {
+  public static void main(String[] args) {
+    if (args.length == 0) {
+      System.out.println("Usage : LogMerger <log folder> [out" + LogFormat.CSV_EXTENSION + " | out"
+          + LogFormat.BINARY_EXTENSION + "] [period seconds]");
+      return;
+    }
+    File folder = new File(args[0]);
+    File out = args.length > 1 ? new File(args[1]) : new File(folder, "merged" + LogFormat.CSV_EXTENSION);
+    double period = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+
+    try {
+      long rows = merge(folder, out, period);
+      System.out.println("LogMerger : " + folder + " -> " + out + " : " + rows + " rows");
+    } catch (IOException e) {
+      System.out.println("LogMerger : " + folder + " : Merge Failed : " + e);
+    }
+  }
+
+  /**
+   * Merges every binary log in a folder into one table.
+   * 
+   * @param folder session folder holding one or more channel logs
+   * @param out    table to write, binary if it ends in .bin otherwise CSV
+   * @param period resample period in seconds, or 0 to keep every timestamp
+   * @return number of rows written
+   */
+  public static long merge(File folder, File out, double period) throws IOException {
+    List<Channel> channels = openChannels(folder, out);
+    if (channels.isEmpty()) {
+      throw new IOException("no binary logs found");
+    }
+
+    // line every channel up on the first channel's clock using the epoch anchors
+    final long referenceAnchor = channels.get(0).epochAnchorMicros;
+    ArrayList<String> columns = new ArrayList<>();
+    columns.add("Time");
+    for (Channel channel : channels) {
+      channel.timeOffset = (channel.epochAnchorMicros - referenceAnchor) * 1e-6;
+      channel.outputColumn = columns.size();
+      for (int i = 1; i < channel.columns.length; i++) {
+        columns.add(channel.name + "/" + channel.columns[i]);
+      }
+    }
+
+    double[] table = new double[columns.size()];
+    Arrays.fill(table, Double.NaN);
+
+    PriorityQueue<Channel> queue = new PriorityQueue<>(Comparator.comparingDouble(Channel::time));
+    for (Channel channel : channels) {
+      if (channel.advance()) {
+        queue.add(channel);
+      } else {
+        channel.close();
+      }
+    }
+
+    long rows = 0;
+    try (LogWriter writer = out.getName().endsWith(LogFormat.BINARY_EXTENSION)
+        ? new BinaryLogWriter(createEmpty(out))
+        : new CsvLogWriter(out)) {
+      writer.writeHeader(columns.toArray(new String[0]), referenceAnchor);
+
+      final double start = queue.isEmpty() || period <= 0 ? 0 : Math.floor(queue.peek().time() / period) * period;
+      while (!queue.isEmpty()) {
+        // with no period, the next row is at the next timestamp in any channel
+        final double rowTime = period > 0 ? start + rows * period : queue.peek().time();
+        while (!queue.isEmpty() && queue.peek().time() <= rowTime) {
+          Channel channel = queue.poll();
+          System.arraycopy(channel.row, 1, table, channel.outputColumn, channel.columns.length - 1);
+          if (channel.advance()) {
+            queue.add(channel);
+          } else {
+            channel.close();
+          }
+        }
+
+        table[0] = rowTime;
+        writer.writeRow(table);
+        rows++;
+      }
+    } finally {
+      for (Channel channel : queue) {
+        channel.close();
+      }
+    }
+    return rows;
+  }
+
+  /** groups the segments of each channel and opens a reader on the first one */
+  private static List<Channel> openChannels(File folder, File out) throws IOException {
+    File[] files = folder.listFiles();
+    if (files == null) {
+      throw new IOException(folder + " is not a folder");
+    }
+
+    // channel name -> segments in order, "name.bin" then "name.seg1.bin", ...
+    TreeMap<String, TreeMap<Integer, File>> segments = new TreeMap<>();
+    for (File file : files) {
+      String name = file.getName();
+      if (!name.endsWith(LogFormat.BINARY_EXTENSION) || file.equals(out)) {
+        continue;
+      }
+      name = name.substring(0, name.length() - LogFormat.BINARY_EXTENSION.length());
+      int segment = 0;
+      int dot = name.lastIndexOf(".seg");
+      if (dot >= 0) {
+        try {
+          segment = Integer.parseInt(name.substring(dot + 4));
+          name = name.substring(0, dot);
+        } catch (NumberFormatException e) {
+          segment = 0;
+        }
+      }
+      segments.computeIfAbsent(name, (key) -> new TreeMap<>()).put(segment, file);
+    }
+
+    ArrayList<Channel> channels = new ArrayList<>();
+    for (var entry : segments.entrySet()) {
+      try {
+        channels.add(new Channel(entry.getKey(), new ArrayList<>(entry.getValue().values())));
+      } catch (IOException e) {
+        System.out.println("LogMerger : Skipping " + entry.getKey() + " : " + e);
+      }
+    }
+    return channels;
+  }
+
+  private static File createEmpty(File file) throws IOException {
+    if (file.exists() && !file.delete()) {
+      throw new IOException("could not replace " + file);
+    }
+    file.createNewFile();
+    return file;
+  }
+
+  /** one channel's segments read back to back, holding only its current row */
+  private static class Channel {
+    final String name;
+    final String[] columns;
+    final long epochAnchorMicros;
+    final double[] row;
+    double timeOffset = 0;
+    int outputColumn;
+
+    private final List<File> segments;
+    private int segment = 0;
+    private LogReader reader;
+
+    Channel(String name, List<File> segments) throws IOException {
+      this.name = name;
+      this.segments = segments;
+      reader = new LogReader(segments.get(0));
+      columns = reader.getColumns();
+      epochAnchorMicros = reader.getEpochAnchorMicros();
+      row = new double[columns.length];
+    }
+
+    double time() {
+      return row[0] + timeOffset;
+    }
+
+    /** reads the next row, moving on to the next segment when needed */
+    boolean advance() throws IOException {
+      while (reader != null) {
+        if (reader.next(row)) {
+          return true;
+        }
+        reader.close();
+        reader = null;
+        segment++;
+        if (segment < segments.size()) {
+          reader = new LogReader(segments.get(segment));
+          if (reader.getColumns().length != columns.length) {
+            throw new IOException(segments.get(segment) + " does not match the columns of " + name);
+          }
+        }
+      }
+      return false;
+    }
+
+    void close() throws IOException {
+      if (reader != null) {
+        reader.close();
+        reader = null;
+      }
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package frc.robot.utils.logger;
+
+import frc.robot.utils.RobotClock;
+
+/**
+ * Decides which rows a {@link Logger} keeps. Built like the motor suppliers:
+ * 
+ * <pre>
+ * new LogPolicy().withRate(10).withDeadband(0.01).withHeartbeat(1).withBurstRate(50)
+ * </pre>
+ * 
+ * <ul>
+ * <li>rate : at most this many rows per second are kept</li>
+ * <li>deadband : a row is only kept if a value moved more than epsilon since
+ * the last kept row, or the heartbeat period has passed</li>
+ * <li>burst : for a while after {@link #burst(double)} or
+ * {@link #burstAll(double)} the deadband is ignored and the burst rate
+ * replaces the normal rate, to keep full detail around interesting
+ * events</li>
+ * <li>always on : rows are still kept while all loggers are paused, for
+ * events and diagnostics that matter before the match starts</li>
+ * </ul>
+ * 
+ * A policy holds the state of the channel it filters, so each logger needs
+ * its own instance. With nothing set every row is kept.
+ */
+public class LogPolicy {
+  private static volatile double burstAllUntil = Double.NEGATIVE_INFINITY;
+
+  /** allowance so a loop running at exactly the rate is not halved by timing jitter */
+  private static final double JITTER = 0.95;
+
+  private double minPeriod = 0;
+  private double[] deadband = null;
+  private double heartbeat = Double.POSITIVE_INFINITY;
+  private double burstPeriod = 0;
+  private boolean alwaysOn = false;
+
+  private volatile double burstUntil = Double.NEGATIVE_INFINITY;
+  private double lastTime = Double.NEGATIVE_INFINITY;
+  private double[] lastValues = null;
+
+  /** @param rate maximum rows kept per second */
+  public LogPolicy withRate(double rate) {
+    minPeriod = JITTER / rate;
+    return this;
+  }
+
+  /**
+   * @param epsilon change needed to keep a row, either one value for every
+   *                column or one per column
+   */
+  public LogPolicy withDeadband(double... epsilon) {
+    deadband = epsilon;
+    return this;
+  }
+
+  /** @param period seconds after which a row is kept even if nothing changed */
+  public LogPolicy withHeartbeat(double period) {
+    heartbeat = period;
+    return this;
+  }
+
+  /** @param rate maximum rows kept per second while bursting, 0 for every row */
+  public LogPolicy withBurstRate(double rate) {
+    burstPeriod = rate <= 0 ? 0 : JITTER / rate;
+    return this;
+  }
+
+  /** keeps rows while all loggers are paused, see {@link Logger#pauseAllLoggers()} */
+  public LogPolicy withAlwaysOn() {
+    alwaysOn = true;
+    return this;
+  }
+
+  /** @return true if rows are kept while all loggers are paused */
+  public boolean isAlwaysOn() {
+    return alwaysOn;
+  }
+
+  /** keeps full detail on this channel for the given number of seconds */
+  public void burst(double seconds) {
+    burstUntil = RobotClock.now() + seconds;
+  }
+
+  /** keeps full detail on every channel for the given number of seconds */
+  public static void burstAll(double seconds) {
+    burstAllUntil = RobotClock.now() + seconds;
+  }
+
+  /**
+   * @param time   timestamp of the row
+   * @param values row values
+   * @return true if the row should be logged
+   */
+  public boolean accept(double time, double[] values) {
+    final boolean bursting = time < burstUntil || time < burstAllUntil;
+    final double elapsed = time - lastTime;
+
+    if (elapsed < (bursting ? burstPeriod : minPeriod)) {
+      return false;
+    }
+    if (!bursting && deadband != null && elapsed < heartbeat && lastValues != null && !changed(values)) {
+      return false;
+    }
+
+    lastTime = time;
+    if (deadband != null) {
+      if (lastValues == null || lastValues.length != values.length) {
+        lastValues = new double[values.length];
+      }
+      System.arraycopy(values, 0, lastValues, 0, values.length);
+    }
+    return true;
+  }
+
+  private boolean changed(double[] values) {
+    if (values.length != lastValues.length) {
+      return true;
+    }
+    for (int i = 0; i < values.length; i++) {
+      final double epsilon = deadband.length == 1 ? deadband[0] : i < deadband.length ? deadband[i] : 0;
+      final double delta = Math.abs(values[i] - lastValues[i]);
+      // NaN delta means one side is NaN, only a change if they differ
+      if (delta > epsilon || (Double.isNaN(delta) && Double.isNaN(values[i]) != Double.isNaN(lastValues[i]))) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
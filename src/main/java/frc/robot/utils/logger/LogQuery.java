@@ -0,0 +1,143 @@
+package frc.robot.utils.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Time range queries over one channel of a session, using the sparse
+ * {@link LogIndex} to seek straight to the requested window.
+ * 
+ * <pre>
+ * // module 3 velocity between 42 s and 48 s of session 7
+ * var query = new LogQuery(new File("u//LogFile_(7)"), "swerve-3");
+ * double[][] result = query.range(42, 48, "Vel");
+ * double[] times = result[0];
+ * double[] velocities = result[1];
+ * </pre>
+ * 
+ * Only the segments overlapping the window are opened, and each is read from
+ * the last index entry before the window, so a query costs roughly the size
+ * of the window rather than the size of the log.
+ */
+public class LogQuery {
+  private final String channel;
+  private final List<File> segments;
+  private final String[] columns;
+
+  /**
+   * @param folder  session folder, one LogFile_(n)
+   * @param channel logger name, such as "swerve-3"
+   */
+  public LogQuery(File folder, String channel) throws IOException {
+    this.channel = channel;
+    File[] files = folder.listFiles();
+    if (files == null) {
+      throw new IOException(folder + " is not a folder");
+    }
+
+    TreeMap<Integer, File> ordered = new TreeMap<>();
+    for (File file : files) {
+      String name = file.getName();
+      if (name.equals(channel + LogFormat.BINARY_EXTENSION)) {
+        ordered.put(0, file);
+      } else if (name.startsWith(channel + ".seg") && name.endsWith(LogFormat.BINARY_EXTENSION)) {
+        try {
+          ordered.put(Integer.parseInt(name.substring(channel.length() + 4,
+              name.length() - LogFormat.BINARY_EXTENSION.length())), file);
+        } catch (NumberFormatException e) {
+          continue;
+        }
+      }
+    }
+    if (ordered.isEmpty()) {
+      throw new IOException("no log for " + channel + " in " + folder);
+    }
+    segments = new ArrayList<>(ordered.values());
+
+    try (LogReader reader = new LogReader(segments.get(0))) {
+      columns = reader.getColumns();
+    }
+  }
+
+  /** @return column names, including the leading time column */
+  public String[] getColumns() {
+    return columns;
+  }
+
+  /**
+   * Reads every frame with {@code start <= time <= end}.
+   * 
+   * @param columnNames columns to return, the time column is always included
+   * @return {@code result[0]} holds the times and {@code result[i + 1]} the
+   *         values of {@code columnNames[i]}, all the same length
+   */
+  public double[][] range(double start, double end, String... columnNames) throws IOException {
+    int[] selected = new int[columnNames.length];
+    for (int i = 0; i < columnNames.length; i++) {
+      selected[i] = Arrays.asList(columns).indexOf(columnNames[i]);
+      if (selected[i] < 0) {
+        throw new IllegalArgumentException("LogQuery : " + channel + " has no column " + columnNames[i]);
+      }
+    }
+
+    double[][] result = new double[columnNames.length + 1][];
+    int count = 0;
+    double[] row = new double[columns.length];
+
+    for (int s = 0; s < segments.size(); s++) {
+      LogIndex index = LogIndex.load(segments.get(s));
+      // segments are in time order, nothing past the window can match
+      if (index.firstTime() > end) {
+        break;
+      }
+      // skip segments that end before the window, the next one starts later
+      if (s + 1 < segments.size()) {
+        double nextStart = LogIndex.load(segments.get(s + 1)).firstTime();
+        if (nextStart <= start) {
+          continue;
+        }
+      }
+
+      if (result[0] == null) {
+        int estimate = Math.max(index.estimateFrames(start, end), 16);
+        for (int i = 0; i < result.length; i++) {
+          result[i] = new double[estimate];
+        }
+      }
+
+      try (LogReader reader = new LogReader(segments.get(s))) {
+        long offset = index.floorOffset(start);
+        if (offset >= 0) {
+          reader.seek(offset);
+        }
+        while (reader.next(row)) {
+          if (row[0] > end) {
+            break;
+          }
+          if (row[0] < start) {
+            continue;
+          }
+          if (count == result[0].length) {
+            for (int i = 0; i < result.length; i++) {
+              result[i] = Arrays.copyOf(result[i], count * 2);
+            }
+          }
+          result[0][count] = row[0];
+          for (int i = 0; i < selected.length; i++) {
+            result[i + 1][count] = row[selected[i]];
+          }
+          count++;
+        }
+      }
+    }
+
+    for (int i = 0; i < result.length; i++) {
+      result[i] = result[i] == null ? new double[0] : Arrays.copyOf(result[i], count);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,198 @@
+package frc.robot.utils.logger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+import frc.robot.constants.LoggerConstants;
+
+/**
+ * Streams frames out of a binary log file (see {@link LogFormat}) without
+ * loading the file into memory.
+ */
+public class LogReader implements Closeable {
+  private final File file;
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocate(LoggerConstants.READ_BUFFER_BYTES)
+      .order(ByteOrder.LITTLE_ENDIAN);
+  private final CRC32C crc = new CRC32C();
+
+  private final short flags;
+  private final long committed;
+  private final long epochAnchorMicros;
+  private final String[] columns;
+  private final int headerSize;
+  private final int valuesSize;
+  private final int frameSize;
+
+  public LogReader(File file) throws IOException {
+    this.file = file;
+    channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    buffer.limit(0);
+
+    try {
+      if (!fill(LogFormat.FIXED_HEADER_SIZE)) {
+        throw new IOException("LogReader : " + file + " is too short to be a log");
+      }
+      byte[] magic = new byte[LogFormat.MAGIC.length];
+      buffer.get(magic);
+      if (!Arrays.equals(magic, LogFormat.MAGIC)) {
+        throw new IOException("LogReader : " + file + " is not a binary log");
+      }
+      short version = buffer.getShort();
+      if (version != LogFormat.VERSION) {
+        throw new IOException("LogReader : " + file + " has unsupported version " + version);
+      }
+      flags = buffer.getShort();
+      committed = buffer.getLong();
+      epochAnchorMicros = buffer.getLong();
+
+      columns = new String[Short.toUnsignedInt(buffer.getShort())];
+      for (int i = 0; i < columns.length; i++) {
+        if (!fill(Short.BYTES)) {
+          throw new IOException("LogReader : " + file + " header is truncated");
+        }
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (!fill(length)) {
+          throw new IOException("LogReader : " + file + " header is truncated");
+        }
+        byte[] name = new byte[length];
+        buffer.get(name);
+        columns[i] = new String(name, StandardCharsets.UTF_8);
+      }
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    headerSize = LogFormat.headerSize(columns);
+    valuesSize = LogFormat.frameSize(columns.length);
+    frameSize = valuesSize + (hasChecksums() ? Integer.BYTES : 0);
+  }
+
+  /** @return column names, including the leading time column */
+  public String[] getColumns() {
+    return columns;
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  /** @return true if every frame carries a checksum, as written by {@link MappedLogWriter} */
+  public boolean hasChecksums() {
+    return (flags & LogFormat.FLAG_CHECKSUM) != 0;
+  }
+
+  /** @return the committed watermark from the header, or -1 if the file has none */
+  public long getCommitted() {
+    return committed;
+  }
+
+  /**
+   * @return wall clock time, in microseconds since the unix epoch, at which
+   *         the time column reads zero
+   */
+  public long getEpochAnchorMicros() {
+    return epochAnchorMicros;
+  }
+
+  /** @return offset of the first frame */
+  public int getHeaderSize() {
+    return headerSize;
+  }
+
+  /** @return size of a frame on disk, including any checksum */
+  public int getFrameSize() {
+    return frameSize;
+  }
+
+  /** @return file offset of the next frame to be read */
+  public long position() throws IOException {
+    return channel.position() - buffer.remaining();
+  }
+
+  /** moves to a frame boundary, usually one taken from {@link #position()} */
+  public void seek(long offset) throws IOException {
+    channel.position(offset);
+    buffer.limit(0);
+  }
+
+  /**
+   * Reads the next frame. A partially written frame, or one that fails its
+   * checksum, is treated as the end of the log.
+   * 
+   * @param row destination, must be at least {@code getColumns().length} long
+   * @return false once there are no more complete frames
+   */
+  public boolean next(double[] row) throws IOException {
+    if (!hasFrame()) {
+      return false;
+    }
+    for (int i = 0; i < columns.length; i++) {
+      row[i] = buffer.getDouble();
+    }
+    if (hasChecksums()) {
+      buffer.getInt();
+    }
+    return true;
+  }
+
+  /**
+   * Skips every complete frame from the current position without decoding
+   * them, stopping where {@link #next(double[])} would return false.
+   * 
+   * @return file offset just after the last complete frame
+   */
+  public long scanToEnd() throws IOException {
+    while (hasFrame()) {
+      buffer.position(buffer.position() + frameSize);
+    }
+    return position();
+  }
+
+  /** @return true if a complete frame that passes its checksum is buffered */
+  private boolean hasFrame() throws IOException {
+    if (!fill(frameSize)) {
+      return false;
+    }
+    if (hasChecksums()) {
+      crc.reset();
+      crc.update(buffer.array(), buffer.arrayOffset() + buffer.position(), valuesSize);
+      if ((int) crc.getValue() != buffer.getInt(buffer.position() + valuesSize)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** makes sure at least {@code bytes} are readable from the buffer */
+  private boolean fill(int bytes) throws IOException {
+    if (bytes > buffer.capacity()) {
+      throw new IOException("LogReader : " + file + " record larger than read buffer");
+    }
+    if (buffer.remaining() >= bytes) {
+      return true;
+    }
+    buffer.compact();
+    while (buffer.position() < bytes) {
+      if (channel.read(buffer) < 0) {
+        buffer.flip();
+        return false;
+      }
+    }
+    buffer.flip();
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,79 @@
+package frc.robot.utils.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Repairs segment logs left open by a brownout or crash.
+ * 
+ * A segment closed cleanly is trimmed to its watermark. Anything longer was
+ * cut off mid-write: the frames past the watermark are checked one by one,
+ * then the watermark is moved to the last valid frame and the file is trimmed
+ * there.
+ */
+public class LogRecovery {
+  /**
+   * Recovers every segment log in the log folders of a drive.
+   * 
+   * @param drive folder holding the LogFile_(n) folders
+   * @param skip  log folder of the current session, which is still being written
+   */
+  public static void recoverAll(File drive, File skip) {
+    File[] folders = drive.listFiles();
+    if (folders == null) {
+      return;
+    }
+    for (File folder : folders) {
+      if (!folder.isDirectory() || !folder.getName().startsWith("LogFile_(") || folder.equals(skip)) {
+        continue;
+      }
+      File[] files = folder.listFiles();
+      if (files == null) {
+        continue;
+      }
+      for (File file : files) {
+        if (!file.getName().endsWith(LogFormat.BINARY_EXTENSION)) {
+          continue;
+        }
+        try {
+          long end = recover(file);
+          if (end >= 0) {
+            System.out.println("[Log Recovery] Recovered " + file + " : " + end + " bytes");
+          }
+        } catch (IOException e) {
+          System.out.println("[Log Recovery] Recovery Failed : " + file + " : " + e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds the last valid frame of a segment log and trims the file after it.
+   * 
+   * @return the new length of the file, or -1 if it did not need recovering
+   */
+  public static long recover(File file) throws IOException {
+    final long end;
+    try (LogReader reader = new LogReader(file)) {
+      if (!reader.hasChecksums() || reader.getCommitted() == file.length()) {
+        return -1;
+      }
+
+      reader.seek(Math.max(reader.getCommitted(), reader.getHeaderSize()));
+      end = reader.scanToEnd();
+    }
+
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+      ByteBuffer committed = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      committed.putLong(end).flip();
+      channel.write(committed, LogFormat.COMMITTED_OFFSET);
+      channel.truncate(end);
+      channel.force(true);
+    }
+    return end;
+  }
+}
@@ -1,30 +1,55 @@
 package frc.robot.utils.logger;
 
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Calendar;
-
+import frc.robot.utils.RobotClock;
+
+/**
+ * One structured event: an interned event id, a timestamp on the shared
+ * {@link RobotClock} base and a few primitive payload values.
+ * 
+ * Rows are mutable and reused, recording an event fills the row in place and
+ * hands its values to the event {@link Logger} without allocating.
+ */
 public class LogRow {
 
-  private Instant timestamp;
-  private ArrayList<String> lines;
+  private double timestamp;
+  /** [event id, payload...], laid out as the event logger's columns */
+  private final double[] values;
+
 
+  /** @param payloadSize number of payload values each event carries */
+  public LogRow(int payloadSize) {
+    values = new double[payloadSize + 1];
+  }
 
-  public LogRow() {
-    timestamp = Calendar.getInstance().getTime().toInstant();
-    lines = new ArrayList<String>();
+  /**
+   * Fills the row with a new event, stamped now. Payload slots past the third
+   * are set to NaN.
+   */
+  public LogRow set(int event, double a, double b, double c) {
+    timestamp = RobotClock.now();
+    values[0] = event;
+    for (int i = 1; i < values.length; i++) {
+      values[i] = i == 1 ? a : i == 2 ? b : i == 3 ? c : Double.NaN;
+    }
+    return this;
   }
 
-  public void addLine(String line) {
-    lines.add(line);
+  public int getEvent() {
+    return (int) values[0];
   }
 
-  public Instant getTime() {
+  /** @return time in seconds on the shared {@link RobotClock} base */
+  public double getTime() {
     return timestamp;
   }
 
-  public String[] getLines() {
-    return lines.toArray(new String[0]);
+  public double getPayload(int index) {
+    return values[index + 1];
+  }
+
+  /** @return the row as logged: event id followed by the payload */
+  double[] getValues() {
+    return values;
   }
 
 }
@@ -0,0 +1,22 @@
+package frc.robot.utils.logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/** Destination for the rows drained out of a {@link Logger}'s cache. */
+public interface LogWriter extends Closeable {
+  /**
+   * Writes the file header. Called once before any rows.
+   * 
+   * @param columns           column names, including the leading time column
+   * @param epochAnchorMicros wall clock time, in microseconds since the unix
+   *                          epoch, at which the time column reads zero
+   */
+  void writeHeader(String[] columns, long epochAnchorMicros) throws IOException;
+
+  /** Writes one row, the first value is the timestamp. */
+  void writeRow(double[] row) throws IOException;
+
+  /** Pushes any buffered rows to the file. */
+  void flush() throws IOException;
+}
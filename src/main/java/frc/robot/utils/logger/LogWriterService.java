@@ -0,0 +1,78 @@
+package frc.robot.utils.logger;
+
+import java.io.File;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import frc.robot.constants.LoggerConstants;
+
+/**
+ * Single background thread that saves every {@link Logger}.
+ * 
+ * Each pass drains all loggers one after the other, then sleeps. The sleep
+ * shrinks as the fullest cache fills up, so quiet logs are saved at
+ * {@link LoggerConstants#SAVE_RATE} and busy ones at up to
+ * {@link LoggerConstants#MAX_SAVE_RATE}.
+ */
+public class LogWriterService {
+  private static Optional<LogWriterService> inst = Optional.empty();
+
+  private final CopyOnWriteArrayList<Logger> loggers = new CopyOnWriteArrayList<>();
+  private final Thread thread;
+
+  private LogWriterService() {
+    thread = new Thread(this::run, "Log Writer");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  public static synchronized LogWriterService getInstance() {
+    if (!inst.isPresent()) {
+      inst = Optional.of(new LogWriterService());
+    }
+    return inst.get();
+  }
+
+  /** adds a logger to the save pass */
+  public void register(Logger logger) {
+    loggers.add(logger);
+  }
+
+  private void run() {
+    // logs from a previous boot may have been cut off by a brownout
+    Logger.getSessionPath().ifPresent((path) -> {
+      File session = new File(path);
+      LogRecovery.recoverAll(session.getAbsoluteFile().getParentFile(), session.getAbsoluteFile());
+    });
+
+    try {
+      while (!Logger.isStopped()) {
+        double fullest = 0;
+        for (Logger logger : loggers) {
+          fullest = Math.max(fullest, logger.getFill());
+          if (!logger.isPaused() && logger.hasRows()) {
+            logger.save();
+          }
+        }
+
+        Thread.sleep(savePeriodMs(fullest));
+      }
+    } catch (InterruptedException e) {
+      System.out.println("[Log Writer] Save Thread Interrupted : " + e);
+    }
+    for (Logger logger : loggers) {
+      logger.close();
+    }
+  }
+
+  /**
+   * @param fill fraction of the fullest cache at the start of the last pass
+   * @return time to wait before the next pass
+   */
+  private static long savePeriodMs(double fill) {
+    final double slowest = 1000.0 / LoggerConstants.SAVE_RATE;
+    final double fastest = 1000.0 / LoggerConstants.MAX_SAVE_RATE;
+    final double urgency = Math.min(1, fill / LoggerConstants.MAX_SAVE_RATE_FILL);
+    return Math.round(slowest - (slowest - fastest) * urgency);
+  }
+}
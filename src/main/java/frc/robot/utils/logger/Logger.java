@@ -1,35 +1,44 @@
 package frc.robot.utils.logger;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Optional;
-import java.util.concurrent.locks.ReentrantLock;
 
 import frc.robot.constants.FileConstants;
 import frc.robot.constants.LoggerConstants;
+import frc.robot.utils.RobotClock;
 
 public class Logger {
 
-  private ArrayList<double[]> cache = new ArrayList<double[]>();
-  private final ReentrantLock cacheLock = new ReentrantLock();
-
-  private final long creationTime = Calendar.getInstance().getTime().toInstant().toEpochMilli();
-
-  private Thread thread;
+  private final LogBuffer cache;
+  /** scratch row used by the save thread while draining the cache */
+  private final double[] saveRow;
+  private long reportedDropped = 0;
+  private final LogPolicy policy;
 
   private static boolean pausedGlobal = false;
   private boolean pausedLocal = false;
   private static boolean stopped = false;
 
   private File file;
+  private LogWriter writer;
   private static Optional<String> pathName = Optional.empty();
   private String fileName;
 
   public Logger(String fileName, String[] columns) {
-    
+    this(fileName, columns, new LogPolicy());
+  }
+
+  /**
+   * @param fileName name of the log file, without extension
+   * @param columns  column names, not including time
+   * @param policy   decides which logged rows are kept, one instance per logger
+   */
+  public Logger(String fileName, String[] columns, LogPolicy policy) {
+    this.policy = policy;
+    cache = new LogBuffer(LoggerConstants.BUFFER_ROWS, columns.length + 1);
+    saveRow = new double[columns.length + 1];
+
     if(pathName.isEmpty() && !stopped)
       pathName = findSavePath();
     if (!stopped && !pathName.isEmpty())
@@ -41,22 +50,47 @@ public class Logger {
     if(!stopped){
       save(columns);
 
-      launchThread();
+      LogWriterService.getInstance().register(this);
     }
   }
 
 
+  /**
+   * Queues a row to be saved if the logger's {@link LogPolicy} keeps it.
+   * Never blocks, if the cache is full the row is dropped and counted.
+   * 
+   * Rows logged while the logger is paused are dropped, not kept for later.
+   * Loggers whose policy is {@link LogPolicy#withAlwaysOn() always on} keep
+   * logging while all loggers are paused.
+   * 
+   * @param values row values in the same order as the columns, the array is
+   *               copied so it may be reused by the caller
+   */
   public void log(double[] values) {
+    if (isPaused() || stopped) {
+      return;
+    }
+    log(RobotClock.now(), values);
+  }
 
-    var row = new double[values.length + 1];
-    row[0] = (double)(Calendar.getInstance().getTime().toInstant().toEpochMilli() - creationTime) / 1000d;
-    for (int i = 0; i < values.length; i++) {
-      row[i+1] = values[i];
+  /** Queues a row stamped with a time already taken from {@link RobotClock}. */
+  void log(double time, double[] values) {
+    if (isPaused() || stopped) {
+      return;
+    }
+    if (policy.accept(time, values)) {
+      cache.offer(time, values);
     }
+  }
+
+  /** keeps full detail on this logger for the given number of seconds, see {@link LogPolicy} */
+  public void burst(double seconds) {
+    policy.burst(seconds);
+  }
 
-    cacheLock.lock();
-    cache.add(row);
-    cacheLock.unlock();
+  /** @return number of rows dropped because the cache was full */
+  public long getDroppedRows() {
+    return cache.getDropped();
   }
 
   private Optional<String> findSavePath() {
@@ -101,7 +135,8 @@ public class Logger {
       return;
     }
 
-    file = new File(fileName + ".csv");
+    final String extension = LoggerConstants.BINARY_LOG ? LogFormat.BINARY_EXTENSION : LogFormat.CSV_EXTENSION;
+    file = new File(fileName + extension);
     if (file == null) {
       stopped = true;
       return;
@@ -115,10 +150,18 @@ public class Logger {
           System.out.println("[" + fileName + " Logger] File Creation Attempt Limit Exceeded : Killing Logger");
           return;
         }
-        filePath = fileName + "_(" + i + ").csv";
+        filePath = fileName + "_(" + i + ")" + extension;
         file = new File(filePath);
       }
       
+      if (!LoggerConstants.BINARY_LOG) {
+        writer = new CsvLogWriter(file);
+      } else if (LoggerConstants.SEGMENTED_LOG) {
+        writer = new MappedLogWriter(file, saveRow.length);
+      } else {
+        writer = new BinaryLogWriter(file);
+      }
+
       if (!stopped) {
         System.out.println("[" + fileName + " Logger] Log File Initialised : " + filePath);
       }
@@ -137,32 +180,28 @@ public class Logger {
     save(new String[0]);
   }
 
-  public void save(String[] override) {
-    cacheLock.lock();
-
+  public synchronized void save(String[] override) {
+    if (writer == null) {
+      return;
+    }
     try {
-      FileWriter writer = new FileWriter(file, true);
-
       if (override.length != 0) {
-        writer.write("Time");
-        for (int i = 0; i < override.length; i++) {
-          writer.write(", " + override[i]);
-        }
-        writer.write(System.lineSeparator());
+        String[] columns = new String[override.length + 1];
+        columns[0] = "Time";
+        System.arraycopy(override, 0, columns, 1, override.length);
+        writer.writeHeader(columns, RobotClock.getEpochAnchorMicros());
       }
 
-      while (!cache.isEmpty()) {
-        
-        var row = cache.remove(0);
-        
-        writer.write(String.valueOf(row[0])); // timestamp
-        for (int i = 1; i < row.length; i++) {
-          writer.write(", " + row[i]);
-        }
-        
-        writer.write(System.lineSeparator());
+      while (cache.poll(saveRow)) {
+        writer.writeRow(saveRow);
+      }
+      writer.flush();
+
+      long dropped = cache.getDropped();
+      if (dropped != reportedDropped) {
+        System.out.println("[" + fileName + " Logger] Cache Full : " + (dropped - reportedDropped) + " Rows Dropped");
+        reportedDropped = dropped;
       }
-      writer.close();
     } catch (IOException e) {
       System.out.println("[" + fileName + " Logger] File Save Failed : IOExeption : " + e);
       stopped = true;
@@ -170,14 +209,16 @@ public class Logger {
       System.out.println("[" + fileName + " Logger] File Save Failed : Security Exeption : " + e);
       stopped = true;
     } finally {
-      if (!cache.isEmpty()) {
+      if (stopped && !cache.isEmpty()) {
         System.out.println("[" + fileName + " Logger] Save Error : Killing Logger");
       }
     }
-    cacheLock.unlock();
   }
 
-  /** reversibly pauses operation of all loggers (will not effect per logger pauses)*/
+  /**
+   * reversibly pauses operation of all loggers except always on ones, rows
+   * logged meanwhile are dropped (will not effect per logger pauses)
+   */
   public static void pauseAllLoggers() {
     if (!stopped) {
       pausedGlobal = true;
@@ -213,24 +254,42 @@ public class Logger {
     }
   }
 
-  private void launchThread() {
-    if (stopped) {
+  synchronized void close() {
+    if (writer == null) {
       return;
     }
-    thread = new Thread(() -> {
-      try {
-        while (!stopped) {
-          if (!cache.isEmpty() && !pausedGlobal && !pausedLocal && !stopped) {
-            save();
-          }
+    try {
+      writer.close();
+    } catch (IOException e) {
+      System.out.println("[" + fileName + " Logger] File Close Failed : IOExeption : " + e);
+    }
+    writer = null;
+  }
 
-          Thread.sleep(1000 / LoggerConstants.SAVE_RATE);
-        }
-        cache.clear();
-      } catch (InterruptedException e) {
-        System.out.println("[" + fileName + " Logger] Save Thread Interrupted : " + e);
-      }
-    });
-    thread.start();
+  boolean isPaused() {
+    return (pausedGlobal && !policy.isAlwaysOn()) || pausedLocal;
+  }
+
+  static boolean isStopped() {
+    return stopped;
+  }
+
+  /** @return the file being written, or null if the logger is not running */
+  File getFile() {
+    return writer == null ? null : file;
+  }
+
+  /** @return the log folder of this session, if logging started */
+  public static Optional<String> getSessionPath() {
+    return pathName;
+  }
+
+  boolean hasRows() {
+    return !cache.isEmpty();
+  }
+
+  /** @return fraction of the cache currently waiting to be saved */
+  double getFill() {
+    return (double) cache.size() / cache.getCapacity();
   }
 }
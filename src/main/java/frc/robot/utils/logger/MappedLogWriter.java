@@ -0,0 +1,131 @@
+package frc.robot.utils.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32C;
+
+import frc.robot.constants.LoggerConstants;
+
+/**
+ * Writes log rows into preallocated, memory-mapped segment files.
+ * 
+ * Each segment is a complete binary log of {@link LoggerConstants#SEGMENT_BYTES}
+ * whose frames carry a checksum. Writing a row is a copy into the mapping,
+ * the OS pages it out on its own. Every {@link LoggerConstants#COMMIT_PERIOD}
+ * the mapping is forced to disk and the header watermark is moved up, so after
+ * a brownout {@link LogRecovery} only has to check the frames past the
+ * watermark. When a segment fills up the next one is named
+ * {@code <name>.seg<n>.bin}. Every segment gets its own {@link LogIndex}.
+ */
+public class MappedLogWriter implements LogWriter {
+  private final String basePath;
+  private int segment = 0;
+
+  private RandomAccessFile file;
+  private MappedByteBuffer map;
+  private LogIndex.Writer index;
+
+  private String[] columns;
+  private long epochAnchorMicros;
+  private int valuesSize;
+  private final ByteBuffer frame;
+  private final CRC32C crc = new CRC32C();
+
+  private long lastCommit = 0;
+
+  /**
+   * @param file        first segment, an existing empty file
+   * @param columnCount number of columns per row, including time
+   */
+  public MappedLogWriter(File file, int columnCount) throws IOException {
+    String path = file.getPath();
+    basePath = path.endsWith(LogFormat.BINARY_EXTENSION)
+        ? path.substring(0, path.length() - LogFormat.BINARY_EXTENSION.length())
+        : path;
+    frame = ByteBuffer.allocate(LogFormat.frameSize(columnCount) + Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    open(file);
+  }
+
+  @Override
+  public void writeHeader(String[] columns, long epochAnchorMicros) throws IOException {
+    this.columns = columns;
+    this.epochAnchorMicros = epochAnchorMicros;
+    valuesSize = LogFormat.frameSize(columns.length);
+    if (valuesSize + Integer.BYTES != frame.capacity()) {
+      throw new IOException("MappedLogWriter : header does not match column count");
+    }
+    map.position(0);
+    map.put(LogFormat.encodeHeader(columns, LogFormat.FLAG_CHECKSUM, 0, epochAnchorMicros));
+    commit();
+  }
+
+  @Override
+  public void writeRow(double[] row) throws IOException {
+    frame.clear();
+    for (int i = 0; i < row.length; i++) {
+      frame.putDouble(row[i]);
+    }
+    crc.reset();
+    crc.update(frame.array(), 0, valuesSize);
+    frame.putInt((int) crc.getValue());
+    frame.flip();
+
+    if (map.remaining() < frame.remaining()) {
+      nextSegment();
+    }
+    index.frame(row[0], map.position());
+    map.put(frame);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if (System.nanoTime() - lastCommit >= LoggerConstants.COMMIT_PERIOD * 1e9) {
+      commit();
+      index.flush();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (file == null) {
+      return;
+    }
+    commit();
+    final long end = map.position();
+    map = null;
+    // trim the unused preallocated space, which also marks the segment as closed cleanly
+    file.setLength(end);
+    file.close();
+    file = null;
+    index.close();
+  }
+
+  /** forces written frames to disk, then moves the watermark up to them */
+  private void commit() {
+    map.force();
+    map.putLong(LogFormat.COMMITTED_OFFSET, map.position());
+    map.force(0, LogFormat.FIXED_HEADER_SIZE);
+    lastCommit = System.nanoTime();
+  }
+
+  private void nextSegment() throws IOException {
+    close();
+    segment++;
+    File next = new File(basePath + ".seg" + segment + LogFormat.BINARY_EXTENSION);
+    open(next);
+    writeHeader(columns, epochAnchorMicros);
+  }
+
+  private void open(File segmentFile) throws IOException {
+    file = new RandomAccessFile(segmentFile, "rw");
+    file.setLength(LoggerConstants.SEGMENT_BYTES);
+    map = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, LoggerConstants.SEGMENT_BYTES);
+    map.order(ByteOrder.LITTLE_ENDIAN);
+    index = new LogIndex.Writer(segmentFile);
+  }
+}
@@ -2,6 +2,8 @@ package frc.robot.utils.motorsupplier;
 
 import java.util.function.Supplier;
 
+import com.ctre.phoenix.motorcontrol.StatusFrame;
+
 import edu.wpi.first.wpilibj.motorcontrol.MotorController;
 
 public abstract class MotorSupplier<T extends MotorController> implements Supplier<T> {
@@ -11,6 +13,8 @@ public abstract class MotorSupplier<T extends MotorController> implements Suppli
   public boolean brake = false;
   public boolean safety = false;
   public boolean voltageComp = false;
+  /** status frames read from the motor, all others are slowed by CANProfile */
+  public StatusFrame[] statusFrames = {};
 
   public MotorSupplier(int motorPort) {
     this.port = motorPort;
@@ -31,10 +35,19 @@ public abstract class MotorSupplier<T extends MotorController> implements Suppli
     return this;
   }
 
+  /**
+   * Enables MotorSafety. Output written through an OutputGate then has to feed
+   * the motor when a write is skipped.
+   */
   public MotorSupplier<T> withSafety() {
     safety = true;
     return this;
   }
 
+  public MotorSupplier<T> withStatusFrames(StatusFrame... frames) {
+    statusFrames = frames;
+    return this;
+  }
+
   public abstract T get();
 }
@@ -3,20 +3,31 @@ package frc.robot.utils.motorsupplier;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
 import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
 
+import frc.robot.constants.CANConstants;
+import frc.robot.utils.CANProfile;
+import frc.robot.utils.ConsoleLog;
+import frc.robot.utils.logger.EventLog;
+
 public class TalonMotorSupplier extends MotorSupplier<WPI_TalonSRX> {
+  private static final EventLog.Event PORT_UNDEFINED = EventLog.register("WPI_TalonSRX Port Undefined");
+  private static final EventLog.Event NOT_FOUND = EventLog.register("WPI_TalonSRX Not Found");
+  private static final ConsoleLog.Source console = ConsoleLog.source("MotorInfo", 0);
+
   public TalonMotorSupplier(int port) {
     super(port);
   }
 
   public WPI_TalonSRX get() {
     if (port < 0) {
-      System.out.println("MotorInfo : motor port num < 0, check port is defined : " + port);
+      PORT_UNDEFINED.record(port);
+      console.println("motor port num < 0, check port is defined : " + port);
       return new WPI_TalonSRX(99);
     }
     WPI_TalonSRX talon = new WPI_TalonSRX(port);
     if (!talon.isAlive()) {
-      System.out.println(
-          "MotorInfo : new WPI_TalonSRX on port " + port + "not found, may not exist or be of wrong type");
+      NOT_FOUND.record(port);
+      console.println(
+          "new WPI_TalonSRX on port " + port + " not found, may not exist or be of wrong type");
     }
     talon.setInverted(invert);
     if (brake) {
@@ -27,6 +38,7 @@ public class TalonMotorSupplier extends MotorSupplier<WPI_TalonSRX> {
     talon.setSafetyEnabled(safety);
     talon.enableVoltageCompensation(voltageComp);
     talon.configVoltageCompSaturation(12);
+    CANProfile.configure(talon, CANConstants.PHOENIX5_STATUS_PERIOD_MS, statusFrames);
     return talon;
   }
 }
@@ -3,20 +3,31 @@ package frc.robot.utils.motorsupplier;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
 import com.ctre.phoenix.motorcontrol.can.WPI_VictorSPX;
 
+import frc.robot.constants.CANConstants;
+import frc.robot.utils.CANProfile;
+import frc.robot.utils.ConsoleLog;
+import frc.robot.utils.logger.EventLog;
+
 public class VictorMotorSupplier extends MotorSupplier<WPI_VictorSPX> {
+  private static final EventLog.Event PORT_UNDEFINED = EventLog.register("WPI_VictorSPX Port Undefined");
+  private static final EventLog.Event NOT_FOUND = EventLog.register("WPI_VictorSPX Not Found");
+  private static final ConsoleLog.Source console = ConsoleLog.source("MotorInfo", 0);
+
   public VictorMotorSupplier(int port) {
     super(port);
   }
 
   public WPI_VictorSPX get() {
     if (port < 0) {
-      System.out.println("MotorInfo : motor port num < 0, check port is defined : " + port);
+      PORT_UNDEFINED.record(port);
+      console.println("motor port num < 0, check port is defined : " + port);
       return new WPI_VictorSPX(99);
     }
     WPI_VictorSPX victor = new WPI_VictorSPX(port);
     if (!victor.isAlive()) {
-      System.out.println(
-          "MotorInfo : new WPI_VictorSPX on port " + port + "not found, may not exist or be of wrong type");
+      NOT_FOUND.record(port);
+      console.println(
+          "new WPI_VictorSPX on port " + port + " not found, may not exist or be of wrong type");
     }
     victor.setInverted(invert);
     if (brake) {
@@ -27,6 +38,7 @@ public class VictorMotorSupplier extends MotorSupplier<WPI_VictorSPX> {
     victor.setSafetyEnabled(safety);
     victor.enableVoltageCompensation(voltageComp);
     victor.configVoltageCompSaturation(12);
+    CANProfile.configure(victor, CANConstants.PHOENIX5_STATUS_PERIOD_MS, statusFrames);
     return victor;
   }
 }
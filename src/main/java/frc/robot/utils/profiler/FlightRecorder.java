@@ -0,0 +1,200 @@
+package frc.robot.utils.profiler;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import frc.robot.constants.ProfilerConstants;
+import frc.robot.utils.ConsoleLog;
+import frc.robot.utils.RobotClock;
+import frc.robot.utils.logger.EventLog;
+import frc.robot.utils.logger.LogFormat;
+import frc.robot.utils.logger.Logger;
+
+/**
+ * Always-on record of the last few seconds of loop phases, dumped to disk
+ * when a loop overruns.
+ *
+ * Every {@link LoopProfiler.Section} adds its phases here, along with the
+ * whole loop, the framework work done after robotPeriodic (dashboard updates
+ * and the NetworkTables flush) and garbage collections. Phases are stored in
+ * preallocated parallel arrays, so recording is a few array writes.
+ *
+ * When a loop takes longer than {@link ProfilerConstants#OVERRUN_DUMP_THRESHOLD}
+ * the ring is copied and written to {@code overrun-<n>.csv} in the log folder
+ * by a background thread. Overruns while a dump is still being written, or
+ * within the cooldown of the last dump, are only counted as events.
+ */
+public class FlightRecorder {
+  private static final ConsoleLog.Source console = ConsoleLog.source("FlightRecorder");
+  private static final EventLog.Event OVERRUN = EventLog.register("Loop Overrun");
+
+  private static final ArrayList<String> phases = new ArrayList<>();
+  private static final int LOOP_PHASE = phase("Loop");
+  private static final int FRAMEWORK_PHASE = phase("Framework");
+
+  private static final int capacity = ProfilerConstants.FLIGHT_RECORDER_SIZE;
+  private static final long[] starts = new long[capacity];
+  private static final int[] phaseIds = new int[capacity];
+  private static final int[] durations = new int[capacity];
+  private static long next = 0;
+
+  /** copy of the ring handed to the dump thread, oldest first */
+  private static final long[] dumpStarts = new long[capacity];
+  private static final int[] dumpPhaseIds = new int[capacity];
+  private static final int[] dumpDurations = new int[capacity];
+  private static int dumpSize = 0;
+  private static long dumpOffsetMicros = 0;
+  private static final AtomicBoolean dumping = new AtomicBoolean(false);
+  private static final Semaphore dumpRequested = new Semaphore(0);
+  private static int dumps = 0;
+  private static long lastDumpNanos = Long.MIN_VALUE;
+
+  private static final GarbageCollectorMXBean[] collectors;
+  private static final int[] collectorPhases;
+  private static final long[] collectorCounts;
+  private static final long[] collectorTimes;
+
+  private static long loopStartNanos = 0;
+  private static long frameworkStartNanos = 0;
+
+  static {
+    List<GarbageCollectorMXBean> beans = ManagementFactory.getGarbageCollectorMXBeans();
+    collectors = beans.toArray(new GarbageCollectorMXBean[0]);
+    collectorPhases = new int[collectors.length];
+    collectorCounts = new long[collectors.length];
+    collectorTimes = new long[collectors.length];
+    for (int i = 0; i < collectors.length; i++) {
+      collectorPhases[i] = phase("GC " + collectors[i].getName());
+      collectorCounts[i] = collectors[i].getCollectionCount();
+      collectorTimes[i] = collectors[i].getCollectionTime();
+    }
+
+    Thread thread = new Thread(FlightRecorder::runDumps, "Flight Recorder");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /** @return the id of a new phase, used with {@link #record} */
+  static synchronized int phase(String name) {
+    phases.add(name);
+    return phases.size() - 1;
+  }
+
+  /** Adds a finished phase to the ring. Robot loop thread only. */
+  static void record(int phase, long startNanos, long endNanos) {
+    final int i = (int) (next % capacity);
+    starts[i] = startNanos;
+    phaseIds[i] = phase;
+    durations[i] = (int) Math.min(Integer.MAX_VALUE, (endNanos - startNanos) / 1000);
+    next++;
+  }
+
+  /** Call at the very start of each robot loop. */
+  public static void loopStart() {
+    loopStartNanos = System.nanoTime();
+    frameworkStartNanos = loopStartNanos;
+  }
+
+  /** Call at the end of robotPeriodic, the rest of the loop is framework work. */
+  public static void frameworkStart() {
+    frameworkStartNanos = System.nanoTime();
+  }
+
+  /** Call at the very end of each robot loop, dumps the ring if the loop overran. */
+  public static void loopEnd() {
+    final long now = System.nanoTime();
+    record(FRAMEWORK_PHASE, frameworkStartNanos, now);
+    pollCollectors(now);
+    record(LOOP_PHASE, loopStartNanos, now);
+
+    final long loopNanos = now - loopStartNanos;
+    if (loopNanos > (long) (ProfilerConstants.OVERRUN_DUMP_THRESHOLD * 1e9)) {
+      OVERRUN.record(loopNanos / 1e6);
+      requestDump(now);
+    }
+  }
+
+  private static void pollCollectors(long now) {
+    for (int i = 0; i < collectors.length; i++) {
+      final long count = collectors[i].getCollectionCount();
+      if (count == collectorCounts[i]) {
+        continue;
+      }
+      final long time = collectors[i].getCollectionTime();
+      // only the total is known, so the collections are recorded as one phase ending now
+      record(collectorPhases[i], now - (time - collectorTimes[i]) * 1000000, now);
+      collectorCounts[i] = count;
+      collectorTimes[i] = time;
+    }
+  }
+
+  private static void requestDump(long now) {
+    if (dumps >= ProfilerConstants.MAX_OVERRUN_DUMPS
+        || (lastDumpNanos != Long.MIN_VALUE
+            && now - lastDumpNanos < (long) (ProfilerConstants.OVERRUN_DUMP_COOLDOWN * 1e9))
+        || !dumping.compareAndSet(false, true)) {
+      return;
+    }
+    lastDumpNanos = now;
+    dumps++;
+
+    final long first = Math.max(0, next - capacity);
+    dumpSize = (int) (next - first);
+    for (int j = 0; j < dumpSize; j++) {
+      final int i = (int) ((first + j) % capacity);
+      dumpStarts[j] = starts[i];
+      dumpPhaseIds[j] = phaseIds[i];
+      dumpDurations[j] = durations[i];
+    }
+    dumpOffsetMicros = RobotClock.nowMicros() - System.nanoTime() / 1000;
+    dumpRequested.release();
+  }
+
+  private static void runDumps() {
+    while (true) {
+      try {
+        dumpRequested.acquire();
+      } catch (InterruptedException e) {
+        return;
+      }
+      try {
+        writeDump();
+      } catch (IOException e) {
+        console.println("Failed to write overrun dump : " + e);
+      } finally {
+        dumping.set(false);
+      }
+    }
+  }
+
+  private static void writeDump() throws IOException {
+    if (Logger.getSessionPath().isEmpty()) {
+      return;
+    }
+    final String[] names;
+    synchronized (FlightRecorder.class) {
+      names = phases.toArray(new String[0]);
+    }
+    final File file = new File(Logger.getSessionPath().get(), "overrun-" + dumps + LogFormat.CSV_EXTENSION);
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+      writer.write("Time,Phase,Duration (ms)\n");
+      for (int j = 0; j < dumpSize; j++) {
+        writer.write(Double.toString((dumpStarts[j] / 1000 + dumpOffsetMicros) / 1e6));
+        writer.write(',');
+        writer.write(dumpPhaseIds[j] < names.length ? names[dumpPhaseIds[j]] : "?");
+        writer.write(',');
+        writer.write(Double.toString(dumpDurations[j] / 1000.0));
+        writer.write('\n');
+      }
+    }
+    console.println("Loop overrun, recorded phases saved to " + file.getName());
+  }
+}
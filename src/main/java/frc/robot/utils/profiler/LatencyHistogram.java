@@ -0,0 +1,76 @@
+package frc.robot.utils.profiler;
+
+import java.util.Arrays;
+
+/**
+ * Fixed bucket histogram of durations in microseconds.
+ * 
+ * Buckets are preallocated, so recording never allocates. Durations past the
+ * last bucket are counted in it, the exact maximum is tracked separately.
+ * Not thread safe, record and read from the same thread.
+ */
+public class LatencyHistogram {
+  private final long[] counts;
+  private final long bucketMicros;
+  private long count = 0;
+  private long max = 0;
+
+  /**
+   * @param bucketMicros width of each bucket
+   * @param buckets      number of buckets, the last one also holds overflow
+   */
+  public LatencyHistogram(long bucketMicros, int buckets) {
+    if (bucketMicros < 1 || buckets < 1) {
+      throw new IllegalArgumentException("LatencyHistogram : bucket width and count must be > 0");
+    }
+    this.bucketMicros = bucketMicros;
+    this.counts = new long[buckets];
+  }
+
+  public void record(long micros) {
+    if (micros < 0) {
+      micros = 0;
+    }
+    final long bucket = micros / bucketMicros;
+    counts[bucket < counts.length ? (int) bucket : counts.length - 1]++;
+    count++;
+    if (micros > max) {
+      max = micros;
+    }
+  }
+
+  /**
+   * @param fraction 0 to 1, eg 0.99 for the 99th percentile
+   * @return upper edge of the bucket holding the percentile, capped at the
+   *         maximum recorded, 0 if nothing has been recorded
+   */
+  public long percentile(double fraction) {
+    if (count == 0) {
+      return 0;
+    }
+    final long target = Math.max(1, (long) Math.ceil(fraction * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= target) {
+        return Math.min((i + 1) * bucketMicros, max);
+      }
+    }
+    return max;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  /** clears every bucket, ready for the next window */
+  public void reset() {
+    Arrays.fill(counts, 0);
+    count = 0;
+    max = 0;
+  }
+}
@@ -0,0 +1,132 @@
+package frc.robot.utils.profiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.constants.ProfilerConstants;
+import frc.robot.utils.logger.EventLog;
+
+/**
+ * Per-subsystem and per-command loop time histograms.
+ *
+ * Subsystems time their own periodic with a {@link Section}:
+ *
+ * <pre>
+ * private static final LoopProfiler.Section profile = LoopProfiler.section("DriveSub");
+ * ...
+ * public void periodic() {
+ *   profile.start();
+ *   ...
+ *   profile.stop();
+ * }
+ * </pre>
+ *
+ * Commands are timed automatically once {@link #bindCommands()} has been
+ * called. The scheduler reports each command after its execute(), and the
+ * time since the previous report (or since the end of button polling for the
+ * first command) is charged to it. This also includes the previous command's
+ * isFinished() and end(), which is close enough to find the slow one.
+ *
+ * Every {@link ProfilerConstants#PUBLISH_PERIOD} the p50, p99 and max of each
+ * section are put on the dashboard under "Loop Times", recorded as events in
+ * the log and the histograms are reset. Everything runs on the robot loop
+ * thread. Each section is also a phase in the {@link FlightRecorder}.
+ */
+public class LoopProfiler {
+  private static final ArrayList<Section> sections = new ArrayList<>();
+  private static final HashMap<String, Section> commands = new HashMap<>();
+
+  private static long commandMark = 0;
+  private static long lastPublish = System.nanoTime();
+
+  /** A timed block of code with its own histogram. */
+  public static class Section {
+    private final LatencyHistogram histogram = new LatencyHistogram(
+        ProfilerConstants.HISTOGRAM_BUCKET_MICROS, ProfilerConstants.HISTOGRAM_BUCKETS);
+    private final String p50Key;
+    private final String p99Key;
+    private final String maxKey;
+    private final EventLog.Event event;
+    private final int phase;
+    private long startNanos = 0;
+
+    private Section(String name) {
+      p50Key = "Loop Times/" + name + "/p50 ms";
+      p99Key = "Loop Times/" + name + "/p99 ms";
+      maxKey = "Loop Times/" + name + "/max ms";
+      event = EventLog.register("Loop Time " + name);
+      phase = FlightRecorder.phase(name);
+    }
+
+    public void start() {
+      startNanos = System.nanoTime();
+    }
+
+    public void stop() {
+      record(startNanos, System.nanoTime());
+    }
+
+    /** Records a phase timed elsewhere, in {@link System#nanoTime()} units. */
+    public void record(long startNanos, long endNanos) {
+      histogram.record((endNanos - startNanos) / 1000);
+      FlightRecorder.record(phase, startNanos, endNanos);
+    }
+
+    private void publish() {
+      if (histogram.getCount() == 0) {
+        return;
+      }
+      final double p50 = histogram.percentile(0.5) / 1000.0;
+      final double p99 = histogram.percentile(0.99) / 1000.0;
+      final double max = histogram.getMax() / 1000.0;
+      SmartDashboard.putNumber(p50Key, p50);
+      SmartDashboard.putNumber(p99Key, p99);
+      SmartDashboard.putNumber(maxKey, max);
+      event.record(p50, p99, max);
+      histogram.reset();
+    }
+  }
+
+  /** Creates a section, do this once per timed block (eg a static field). */
+  public static Section section(String name) {
+    final Section section = new Section(name);
+    sections.add(section);
+    return section;
+  }
+
+  /**
+   * Starts timing command execution. Call once after every trigger has been
+   * bound, so the mark is set after all other button loop bindings have run.
+   */
+  public static void bindCommands() {
+    final CommandScheduler scheduler = CommandScheduler.getInstance();
+    scheduler.getDefaultButtonLoop().bind(() -> commandMark = System.nanoTime());
+    scheduler.onCommandExecute(LoopProfiler::commandExecuted);
+  }
+
+  private static void commandExecuted(Command command) {
+    final long now = System.nanoTime();
+    Section section = commands.get(command.getName());
+    if (section == null) {
+      section = section(command.getName());
+      commands.put(command.getName(), section);
+    }
+    section.record(commandMark, now);
+    commandMark = now;
+  }
+
+  /** Publishes and resets the histograms once per publish period. Call every loop. */
+  public static void periodic() {
+    final long now = System.nanoTime();
+    if (now - lastPublish < (long) (ProfilerConstants.PUBLISH_PERIOD * 1e9)) {
+      return;
+    }
+    lastPublish = now;
+    for (int i = 0; i < sections.size(); i++) {
+      sections.get(i).publish();
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package frc.robot.utils;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.management.ThreadMXBean;
+
+import frc.robot.constants.DriveConstants;
+
+/**
+ * The pure Java part of the drive and odometry loops allocates nothing once
+ * warmed up, measured with the JVM's per-thread allocation counter.
+ *
+ * The hardware reads in SwerveModule and WPILib's pose estimator are left
+ * out, they need the HAL and the estimator allocates internally.
+ *
+ * The path allocates nothing by construction, it does not rely on the JIT
+ * removing allocations, so this also holds interpreted. A small allowance is
+ * left for one-off allocations made by the JVM or an agent such as a
+ * coverage tool while the loop runs; anything made every loop, even one
+ * object, is many times over it. The exact per call figure is gc.alloc.rate.norm
+ * in the DriveBenchmark results, which run with the gc profiler.
+ */
+class DrivePathAllocationTest {
+  private static final double DT = 0.02;
+  private static final int WARMUP = 20_000;
+  private static final int MEASURED = 10_000;
+  /** bytes allowed over all the measured loops, one object per loop would be 160 KB */
+  private static final long ALLOWANCE = 1024;
+
+  private final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private final SwerveDriveController driveController = new SwerveDriveController();
+  private final SwerveKinematics kinematics = new SwerveKinematics(
+      DriveConstants.FRONT_LEFT_MODULE_TRANSLATION,
+      DriveConstants.FRONT_RIGHT_MODULE_TRANSLATION,
+      DriveConstants.BACK_LEFT_MODULE_TRANSLATION,
+      DriveConstants.BACK_RIGHT_MODULE_TRANSLATION);
+  private final SwerveOptimizer[] optimizers = {
+      new SwerveOptimizer(), new SwerveOptimizer(), new SwerveOptimizer(), new SwerveOptimizer() };
+  private final PoseHistory history = new PoseHistory(64);
+
+  private final double[][] sticks = { { 0.6, -0.3, 0.4 }, { -0.5, 0.4, -0.2 } };
+  private final double[] speeds = new double[4];
+  private final double[] angles = new double[4];
+  private final double[] chassis = new double[3];
+  private final double[] pose = new double[3];
+  private final double[] lookup = new double[PoseHistory.SIZE];
+  private double time = 0;
+  private int flips = 0;
+
+  /** one robot loop of driving and the odometry cycles that run alongside it */
+  private void loop(int n) {
+    final double[] stick = sticks[n & 1];
+    time += DT;
+    // mostly rate limited, with the odd unlimited call like the auto makes
+    driveController.drive(stick[0], stick[1], stick[2], true, n % 10 != 0,
+        Math.cos(pose[2]), Math.sin(pose[2]), chassis[0], chassis[1], chassis[2], time, speeds, angles);
+    for (int i = 0; i < 4; i++) {
+      if (optimizers[i].optimize(angles[i], GeometryUtils.wrap(angles[i] + 0.1 * n))) {
+        flips++;
+      }
+    }
+
+    for (int cycle = 0; cycle < 5; cycle++) {
+      kinematics.toChassisSpeeds(speeds, angles, chassis);
+      GeometryUtils.exp(pose, chassis[0] * DT / 5, chassis[1] * DT / 5, chassis[2] * DT / 5, pose);
+      history.add(time + cycle * DT / 5, pose[0], pose[1], pose[2], chassis[0], chassis[1], chassis[2]);
+    }
+    history.get(time - 0.05, lookup);
+  }
+
+  private long allocatedBytes() {
+    return threads.getCurrentThreadAllocatedBytes();
+  }
+
+  @Test
+  void drivePathDoesNotAllocate() {
+    assertTrue(threads.isThreadAllocatedMemoryEnabled());
+    for (int n = 0; n < WARMUP; n++) {
+      loop(n);
+    }
+
+    // what reading the counter itself costs, if anything
+    final long overhead = -allocatedBytes() + allocatedBytes();
+    final long start = allocatedBytes();
+    for (int n = 0; n < MEASURED; n++) {
+      loop(n);
+    }
+    final long allocated = allocatedBytes() - start - overhead;
+
+    assertTrue(allocated <= ALLOWANCE, allocated + " bytes allocated over " + MEASURED + " loops");
+    // keeps the optimizer results live
+    assertTrue(flips >= 0);
+  }
+}
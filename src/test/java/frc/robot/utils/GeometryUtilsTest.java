@@ -0,0 +1,135 @@
+package frc.robot.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Twist2d;
+
+/**
+ * {@link GeometryUtils} against the WPILib math it replaces, and the
+ * {@link SwerveUtils} angle helpers built on it.
+ */
+class GeometryUtilsTest {
+  private static final double EPSILON = 1e-9;
+  private static final int CASES = 1_000_000;
+
+  private final Random random = new Random(4729);
+
+  /** mostly within a turn or two, like the drive sees, sometimes far out */
+  private double angle() {
+    final double turns = random.nextInt(10) == 0 ? 1000 : 3;
+    return (random.nextDouble() * 2 - 1) * turns * GeometryUtils.TWO_PI;
+  }
+
+  /** asserts two angles point the same way, whichever turn they are on */
+  private static void assertSameAngle(double expected, double actual) {
+    final double error = Math.IEEEremainder(expected - actual, GeometryUtils.TWO_PI);
+    assertEquals(0, error, EPSILON, "expected " + expected + " but was " + actual);
+  }
+
+  @Test
+  void wrapMatchesAngleModulus() {
+    for (int n = 0; n < CASES; n++) {
+      final double angle = angle();
+      final double wrapped = GeometryUtils.wrap(angle);
+      assertTrue(wrapped >= -Math.PI && wrapped < Math.PI, "wrap(" + angle + ") = " + wrapped);
+      assertSameAngle(MathUtil.angleModulus(angle), wrapped);
+    }
+  }
+
+  @Test
+  void wrapPositiveMatchesInputModulus() {
+    for (int n = 0; n < CASES; n++) {
+      final double angle = angle();
+      final double wrapped = GeometryUtils.wrapPositive(angle);
+      assertTrue(wrapped >= 0 && wrapped < GeometryUtils.TWO_PI, "wrapPositive(" + angle + ") = " + wrapped);
+      assertSameAngle(MathUtil.inputModulus(angle, 0, GeometryUtils.TWO_PI), wrapped);
+    }
+  }
+
+  @Test
+  void wrapsAtTheRangeEdges() {
+    assertEquals(-Math.PI, GeometryUtils.wrap(Math.PI));
+    assertEquals(-Math.PI, GeometryUtils.wrap(-Math.PI));
+    assertEquals(0, GeometryUtils.wrapPositive(GeometryUtils.TWO_PI));
+    assertEquals(0, GeometryUtils.wrapPositive(0));
+    // rounds up to exactly 2 pi when added, so has to come out as 0
+    assertEquals(0, GeometryUtils.wrapPositive(-1e-17));
+    assertEquals(0, GeometryUtils.wrapPositive(-1e-17 - 100 * GeometryUtils.TWO_PI));
+  }
+
+  @Test
+  void differenceIsTheShortestTurn() {
+    for (int n = 0; n < CASES; n++) {
+      final double a = angle();
+      final double b = angle();
+      final double difference = GeometryUtils.difference(a, b);
+      assertTrue(difference >= -Math.PI && difference < Math.PI);
+      assertSameAngle(a, b + difference);
+      assertEquals(Math.abs(difference), GeometryUtils.absDifference(a, b));
+    }
+  }
+
+  @Test
+  void expMatchesPose2d() {
+    final double[] pose = new double[3];
+    for (int n = 0; n < CASES; n++) {
+      pose[0] = random.nextGaussian() * 5;
+      pose[1] = random.nextGaussian() * 5;
+      pose[2] = GeometryUtils.wrap(angle());
+      final double dx = random.nextGaussian();
+      final double dy = random.nextGaussian();
+      // straight lines a tenth of the time, for the small angle branch
+      final double dtheta = random.nextInt(10) == 0 ? random.nextGaussian() * 1e-10 : random.nextGaussian();
+
+      Pose2d expected = new Pose2d(pose[0], pose[1], new Rotation2d(pose[2])).exp(new Twist2d(dx, dy, dtheta));
+      GeometryUtils.exp(pose, dx, dy, dtheta, pose);
+      assertEquals(expected.getX(), pose[0], EPSILON);
+      assertEquals(expected.getY(), pose[1], EPSILON);
+      assertSameAngle(expected.getRotation().getRadians(), pose[2]);
+      assertTrue(pose[2] >= -Math.PI && pose[2] < Math.PI);
+    }
+  }
+
+  @Test
+  void rotateMatchesRotation2d() {
+    final double[] out = new double[2];
+    final double angle = 0.7;
+    GeometryUtils.rotate(2, 1, Math.cos(angle), Math.sin(angle), out);
+    assertEquals(2 * Math.cos(angle) - Math.sin(angle), out[0], EPSILON);
+    assertEquals(2 * Math.sin(angle) + Math.cos(angle), out[1], EPSILON);
+  }
+
+  @Test
+  void angleDifferenceIsUnsignedAndShortest() {
+    assertEquals(0.2, SwerveUtils.AngleDifference(0.1, GeometryUtils.TWO_PI - 0.1), EPSILON);
+    assertEquals(0.2, SwerveUtils.AngleDifference(GeometryUtils.TWO_PI - 0.1, 0.1), EPSILON);
+    assertEquals(Math.PI, SwerveUtils.AngleDifference(0, Math.PI), EPSILON);
+    assertEquals(0.2, SwerveUtils.AngleDifference(-3 * Math.PI / 4, 5 * Math.PI / 4 - 0.2), EPSILON);
+    // an atan2 result against a 0 to 2 pi angle more than a turn apart, which
+    // the old version returned -0.5 for
+    assertEquals(0.5, SwerveUtils.AngleDifference(-3, 2 * Math.PI - 2.5), EPSILON);
+    for (int n = 0; n < CASES; n++) {
+      final double a = angle();
+      final double b = angle();
+      final double difference = SwerveUtils.AngleDifference(a, b);
+      assertTrue(difference >= 0 && difference <= Math.PI, "AngleDifference(" + a + ", " + b + ") = " + difference);
+      assertEquals(difference, SwerveUtils.AngleDifference(b, a), EPSILON);
+    }
+  }
+
+  @Test
+  void wrapAngleIsWrapPositive() {
+    for (int n = 0; n < CASES; n++) {
+      final double angle = angle();
+      assertEquals(GeometryUtils.wrapPositive(angle), SwerveUtils.WrapAngle(angle));
+    }
+  }
+}
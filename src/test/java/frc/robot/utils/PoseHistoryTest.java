@@ -0,0 +1,114 @@
+package frc.robot.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/** {@link PoseHistory} lookups, interpolation and ring wrap-around. */
+class PoseHistoryTest {
+  private static final double EPSILON = 1e-12;
+  private static final int CAPACITY = 8;
+
+  private final PoseHistory history = new PoseHistory(CAPACITY);
+  private final double[] out = new double[PoseHistory.SIZE];
+
+  /** sample i is at time i, every value a simple function of i */
+  private void add(int i) {
+    history.add(i, i, 2 * i, 0.1 * i, -i, 3 * i, 0.5 * i);
+  }
+
+  private void assertSample(double i) {
+    assertArrayEquals(new double[] { i, 2 * i, 0.1 * i, -i, 3 * i, 0.5 * i }, out, EPSILON);
+  }
+
+  @Test
+  void emptyHistoryHasNothing() {
+    assertFalse(history.get(0, out));
+    assertTrue(Double.isNaN(history.getNewestTime()));
+  }
+
+  @Test
+  void interpolatesBetweenSamples() {
+    for (int i = 0; i < 5; i++) {
+      add(i);
+    }
+    assertTrue(history.get(2.25, out));
+    assertSample(2.25);
+  }
+
+  @Test
+  void findsEverySampleExactly() {
+    for (int i = 0; i < CAPACITY; i++) {
+      add(i);
+    }
+    for (int i = 0; i < CAPACITY; i++) {
+      assertTrue(history.get(i, out), "time " + i);
+      assertSample(i);
+    }
+  }
+
+  @Test
+  void binarySearchEdges() {
+    for (int i = 0; i < CAPACITY; i++) {
+      add(i);
+    }
+    // oldest sample exactly, just after it, and just before the newest
+    assertTrue(history.get(0, out));
+    assertSample(0);
+    assertTrue(history.get(1e-9, out));
+    assertSample(1e-9);
+    assertTrue(history.get(CAPACITY - 1 - 1e-9, out));
+    assertSample(CAPACITY - 1 - 1e-9);
+    // after the newest gives the newest
+    assertTrue(history.get(100, out));
+    assertSample(CAPACITY - 1);
+    // before the oldest is not known
+    assertFalse(history.get(-1e-9, out));
+  }
+
+  @Test
+  void oldestSamplesAreOverwrittenWhenFull() {
+    // wraps round the ring two and a half times
+    final int added = CAPACITY * 5 / 2;
+    for (int i = 0; i < added; i++) {
+      add(i);
+    }
+    final int oldest = added - CAPACITY;
+    assertEquals(added - 1, history.getNewestTime());
+    assertFalse(history.get(oldest - 0.5, out));
+    for (double time = oldest; time <= added - 1; time += 0.25) {
+      assertTrue(history.get(time, out), "time " + time);
+      assertSample(time);
+    }
+  }
+
+  @Test
+  void headingInterpolatesAcrossPi() {
+    history.add(0, 0, 0, Math.PI - 0.1, 0, 0, 0);
+    history.add(1, 0, 0, -Math.PI + 0.1, 0, 0, 0);
+    // the short way round, through pi, not back through 0
+    assertTrue(history.get(0.5, out));
+    assertEquals(0, GeometryUtils.difference(out[2], Math.PI), EPSILON);
+    assertTrue(history.get(0.25, out));
+    assertEquals(Math.PI - 0.05, out[2], EPSILON);
+    assertTrue(history.get(0.75, out));
+    assertEquals(-Math.PI + 0.05, out[2], EPSILON);
+  }
+
+  @Test
+  void clearEmptiesTheHistory() {
+    for (int i = 0; i < CAPACITY + 3; i++) {
+      add(i);
+    }
+    history.clear();
+    assertFalse(history.get(5, out));
+    add(20);
+    add(21);
+    assertTrue(history.get(20.5, out));
+    assertSample(20.5);
+    assertFalse(history.get(19.5, out));
+  }
+}
@@ -0,0 +1,87 @@
+package frc.robot.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.constants.DriveConstants;
+
+/** {@link SwerveDriveController} rate limiting across pauses in driving. */
+class SwerveDriveControllerTest {
+  private static final double DT = 0.02;
+  private static final double EPSILON = 1e-9;
+
+  private final SwerveDriveController controller = new SwerveDriveController();
+  private final double[] speeds = new double[4];
+  private final double[] angles = new double[4];
+
+  @Test
+  void firstStepAfterAPauseIsOneLoopLong() {
+    // not driven for a second before this call
+    controller.drive(1, 0, 0, false, true, 1, 0, 0, 0, 0, 1, speeds, angles);
+    for (int i = 0; i < speeds.length; i++) {
+      assertTrue(speeds[i] <= DriveConstants.MAX_MODULE_ACCELERATION * DT + EPSILON,
+          "module " + i + " jumped to " + speeds[i]);
+    }
+  }
+
+  @Test
+  void startsFromTheMeasuredSpeedsAfterAPause() {
+    controller.drive(1, 0, 0, false, true, 1, 0, 2, 0, 0, 1, speeds, angles);
+    for (int i = 0; i < speeds.length; i++) {
+      assertEquals(2 + DriveConstants.MAX_MODULE_ACCELERATION * DT, speeds[i], 1e-2);
+    }
+  }
+
+  @Test
+  void resumesFromCoastingModulesWithAngularOffsets() {
+    final double[] offsets = {
+        DriveConstants.FRONT_LEFT_CHASSIS_ANGULAR_OFFSET,
+        DriveConstants.FRONT_RIGHT_CHASSIS_ANGULAR_OFFSET,
+        DriveConstants.BACK_LEFT_CHASSIS_ANGULAR_OFFSET,
+        DriveConstants.BACK_RIGHT_CHASSIS_ANGULAR_OFFSET };
+    final SwerveKinematics kinematics = new SwerveKinematics(
+        DriveConstants.FRONT_LEFT_MODULE_TRANSLATION,
+        DriveConstants.FRONT_RIGHT_MODULE_TRANSLATION,
+        DriveConstants.BACK_LEFT_MODULE_TRANSLATION,
+        DriveConstants.BACK_RIGHT_MODULE_TRANSLATION);
+
+    // the robot is still coasting when driving starts again
+    final double[] coasting = new double[4];
+    final double[] coastingAngles = new double[4];
+    kinematics.toModuleStates(1.5, 0.5, 0.8, coasting, coastingAngles);
+
+    // the encoders read the chassis angle plus the module's offset, and
+    // SwerveModule.Sample takes the offset back off the same way
+    final double[] measuredAngles = new double[4];
+    for (int i = 0; i < 4; i++) {
+      final double turnAngle = GeometryUtils.wrapPositive(coastingAngles[i] + offsets[i]);
+      measuredAngles[i] = GeometryUtils.difference(turnAngle, offsets[i]);
+    }
+    final double[] measured = new double[3];
+    kinematics.toChassisSpeeds(coasting, measuredAngles, measured);
+    assertEquals(1.5, measured[0], EPSILON);
+    assertEquals(0.5, measured[1], EPSILON);
+    assertEquals(0.8, measured[2], EPSILON);
+
+    // asking for the same speeds carries straight on, with no jump
+    controller.drive(1.5 / DriveConstants.MAX_SPEED, 0.5 / DriveConstants.MAX_SPEED,
+        0.8 / DriveConstants.MAX_ANGULAR_SPEED, false, true, 1, 0,
+        measured[0], measured[1], measured[2], 1, speeds, angles);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(coasting[i], speeds[i], EPSILON);
+      assertEquals(0, GeometryUtils.difference(coastingAngles[i], angles[i]), EPSILON);
+    }
+  }
+
+  @Test
+  void fieldRelativeSpeedsAreRotatedIntoTheRobotFrame() {
+    // facing left, so field forward is robot right
+    controller.drive(0.5, 0, 0, true, false, 0, 1, 0, 0, 0, DT, speeds, angles);
+    for (int i = 0; i < speeds.length; i++) {
+      assertEquals(0.5 * DriveConstants.MAX_SPEED, speeds[i], EPSILON);
+      assertEquals(-Math.PI / 2, angles[i], EPSILON);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package frc.robot.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.constants.DriveConstants;
+
+/** {@link SwerveKinematics} against WPILib's {@link SwerveDriveKinematics}. */
+class SwerveKinematicsTest {
+  private static final double EPSILON = 1e-9;
+  private static final int CASES = 10_000;
+
+  private static final Translation2d[] MODULES = {
+      DriveConstants.FRONT_LEFT_MODULE_TRANSLATION,
+      DriveConstants.FRONT_RIGHT_MODULE_TRANSLATION,
+      DriveConstants.BACK_LEFT_MODULE_TRANSLATION,
+      DriveConstants.BACK_RIGHT_MODULE_TRANSLATION
+  };
+
+  private final SwerveKinematics kinematics = new SwerveKinematics(MODULES);
+  private final SwerveDriveKinematics wpilib = new SwerveDriveKinematics(MODULES);
+  private final Random random = new Random(4729);
+
+  private final double[] speeds = new double[MODULES.length];
+  private final double[] angles = new double[MODULES.length];
+
+  /** a random speed in the range, zero a quarter of the time so pure moves are covered */
+  private double speed(double max) {
+    return random.nextInt(4) == 0 ? 0 : (random.nextDouble() * 2 - 1) * max;
+  }
+
+  private static void assertAngleEquals(double expected, double actual) {
+    assertEquals(0, GeometryUtils.wrap(expected - actual), EPSILON);
+  }
+
+  private void assertStatesEqual(SwerveModuleState[] expected) {
+    for (int i = 0; i < MODULES.length; i++) {
+      assertEquals(expected[i].speedMetersPerSecond, speeds[i], EPSILON);
+      assertAngleEquals(expected[i].angle.getRadians(), angles[i]);
+    }
+  }
+
+  @Test
+  void toModuleStatesMatchesWpilib() {
+    for (int n = 0; n < CASES; n++) {
+      final double vx = speed(DriveConstants.MAX_SPEED);
+      final double vy = speed(DriveConstants.MAX_SPEED);
+      final double omega = speed(DriveConstants.MAX_ANGULAR_SPEED);
+      kinematics.toModuleStates(vx, vy, omega, speeds, angles);
+      // both keep the last headings when asked to stop
+      assertStatesEqual(wpilib.toSwerveModuleStates(new ChassisSpeeds(vx, vy, omega)));
+    }
+  }
+
+  @Test
+  void toChassisSpeedsMatchesWpilib() {
+    final double[] chassis = new double[3];
+    SwerveModuleState[] states = new SwerveModuleState[MODULES.length];
+    for (int n = 0; n < CASES; n++) {
+      // independent module states, so the least squares fit is exercised
+      for (int i = 0; i < MODULES.length; i++) {
+        speeds[i] = speed(DriveConstants.MAX_SPEED);
+        angles[i] = (random.nextDouble() * 2 - 1) * Math.PI;
+        states[i] = new SwerveModuleState(speeds[i], new Rotation2d(angles[i]));
+      }
+      kinematics.toChassisSpeeds(speeds, angles, chassis);
+      ChassisSpeeds expected = wpilib.toChassisSpeeds(states);
+      assertEquals(expected.vxMetersPerSecond, chassis[0], EPSILON);
+      assertEquals(expected.vyMetersPerSecond, chassis[1], EPSILON);
+      assertEquals(expected.omegaRadiansPerSecond, chassis[2], EPSILON);
+    }
+  }
+
+  @Test
+  void roundTripsChassisSpeeds() {
+    final double[] chassis = new double[3];
+    for (int n = 0; n < CASES; n++) {
+      final double vx = speed(DriveConstants.MAX_SPEED);
+      final double vy = speed(DriveConstants.MAX_SPEED);
+      final double omega = speed(DriveConstants.MAX_ANGULAR_SPEED);
+      kinematics.toModuleStates(vx, vy, omega, speeds, angles);
+      kinematics.toChassisSpeeds(speeds, angles, chassis);
+      assertEquals(vx, chassis[0], EPSILON);
+      assertEquals(vy, chassis[1], EPSILON);
+      assertEquals(omega, chassis[2], EPSILON);
+    }
+  }
+
+  @Test
+  void desaturateMatchesWpilib() {
+    for (int n = 0; n < CASES; n++) {
+      final double vx = speed(2 * DriveConstants.MAX_SPEED);
+      final double vy = speed(2 * DriveConstants.MAX_SPEED);
+      final double omega = speed(2 * DriveConstants.MAX_ANGULAR_SPEED);
+      kinematics.toModuleStates(vx, vy, omega, speeds, angles);
+      SwerveKinematics.desaturate(speeds, DriveConstants.MAX_SPEED);
+
+      SwerveModuleState[] expected = wpilib.toSwerveModuleStates(new ChassisSpeeds(vx, vy, omega));
+      SwerveDriveKinematics.desaturateWheelSpeeds(expected, DriveConstants.MAX_SPEED);
+      assertStatesEqual(expected);
+    }
+  }
+}
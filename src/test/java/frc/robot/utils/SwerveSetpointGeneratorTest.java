@@ -0,0 +1,121 @@
+package frc.robot.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.constants.DriveConstants;
+
+/**
+ * {@link SwerveSetpointGenerator} keeps every module within its acceleration
+ * and steering limits on each step, and still gets to the request.
+ */
+class SwerveSetpointGeneratorTest {
+  private static final double DT = 0.02;
+  private static final double EPSILON = 1e-9;
+  private static final double MAX_DRIVE_STEP = DriveConstants.MAX_MODULE_ACCELERATION * DT;
+  private static final double MAX_STEER_STEP = DriveConstants.MAX_STEER_VELOCITY * DT;
+  private static final int MODULES = 4;
+
+  private final SwerveSetpointGenerator generator = new SwerveSetpointGenerator(
+      DriveConstants.MAX_SPEED,
+      DriveConstants.MAX_MODULE_ACCELERATION,
+      DriveConstants.MAX_STEER_VELOCITY,
+      DriveConstants.FRONT_LEFT_MODULE_TRANSLATION,
+      DriveConstants.FRONT_RIGHT_MODULE_TRANSLATION,
+      DriveConstants.BACK_LEFT_MODULE_TRANSLATION,
+      DriveConstants.BACK_RIGHT_MODULE_TRANSLATION);
+
+  private final double[] speeds = new double[MODULES];
+  private final double[] angles = new double[MODULES];
+  private final double[] lastSpeeds = new double[MODULES];
+  private final double[] lastAngles = new double[MODULES];
+
+  /**
+   * Steps towards the request until it is reached, checking every module on
+   * every step.
+   *
+   * @return the number of steps taken
+   */
+  private int driveTo(double vx, double vy, double omega) {
+    for (int step = 1; step <= 1000; step++) {
+      generator.generate(vx, vy, omega, DT, speeds, angles);
+      assertWithinLimits();
+      if (Math.abs(generator.getVx() - vx) < EPSILON
+          && Math.abs(generator.getVy() - vy) < EPSILON
+          && Math.abs(generator.getOmega() - omega) < EPSILON) {
+        return step;
+      }
+    }
+    throw new AssertionError("request not reached");
+  }
+
+  private void assertWithinLimits() {
+    for (int i = 0; i < MODULES; i++) {
+      // speed along the way the module was driving, negative once it reverses
+      final double dot = Math.cos(angles[i] - lastAngles[i]);
+      final double signedSpeed = dot < 0 ? -speeds[i] : speeds[i];
+      assertTrue(Math.abs(signedSpeed - lastSpeeds[i]) <= MAX_DRIVE_STEP + EPSILON,
+          "module " + i + " accelerated from " + lastSpeeds[i] + " to " + signedSpeed);
+
+      // a module may drive backwards instead of turning around
+      double turn = Math.abs(GeometryUtils.difference(angles[i], lastAngles[i]));
+      turn = Math.min(turn, Math.PI - turn);
+      assertTrue(turn <= MAX_STEER_STEP + EPSILON,
+          "module " + i + " steered " + turn + " rad in one step");
+    }
+    System.arraycopy(speeds, 0, lastSpeeds, 0, MODULES);
+    System.arraycopy(angles, 0, lastAngles, 0, MODULES);
+  }
+
+  @Test
+  void startsFromRest() {
+    final int steps = driveTo(3, 0, 0);
+    // straight ahead from rest only needs the acceleration limit
+    assertEquals(Math.ceil(3 / MAX_DRIVE_STEP - EPSILON), steps, 1);
+    for (int i = 0; i < MODULES; i++) {
+      assertEquals(3, speeds[i], EPSILON);
+      assertEquals(0, angles[i], EPSILON);
+    }
+  }
+
+  @Test
+  void stoppedModulesTurnInPlaceFirst() {
+    driveTo(0, 2, 0);
+    for (int i = 0; i < MODULES; i++) {
+      assertEquals(Math.PI / 2, angles[i], EPSILON);
+    }
+  }
+
+  @Test
+  void reversesThroughZero() {
+    driveTo(3, 0, 0);
+    final int steps = driveTo(-3, 0, 0);
+    // slows down to 0 and speeds back up, without turning the modules around
+    assertTrue(steps >= 2 * (3 / MAX_DRIVE_STEP) - 1);
+    for (int i = 0; i < MODULES; i++) {
+      assertEquals(3, speeds[i], EPSILON);
+      assertEquals(Math.PI, Math.abs(angles[i]), EPSILON);
+    }
+  }
+
+  @Test
+  void strafesWhileTurning() {
+    driveTo(2, 0, 0);
+    driveTo(1, 2, 3);
+    driveTo(-1, -1, -2);
+    driveTo(0, 0, 0);
+    for (int i = 0; i < MODULES; i++) {
+      assertEquals(0, speeds[i], EPSILON);
+    }
+  }
+
+  @Test
+  void smallerStepsForShorterPeriods() {
+    generator.generate(3, 0, 0, DT / 4, speeds, angles);
+    for (int i = 0; i < MODULES; i++) {
+      assertEquals(MAX_DRIVE_STEP / 4, speeds[i], 1e-3);
+    }
+  }
+}
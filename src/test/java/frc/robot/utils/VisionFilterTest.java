@@ -0,0 +1,150 @@
+package frc.robot.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.constants.VisionConstants;
+
+/**
+ * {@link VisionFilter} on camera poses like PhotonBridge estimates them, taken
+ * a while after the frame while the robot keeps driving.
+ */
+class VisionFilterTest {
+  private static final double EPSILON = 1e-9;
+  private static final double DT = 0.02;
+  private static final double SPEED = 4;
+  /** how far behind the camera pose arrives, in seconds */
+  private static final double LATENCY = 0.3;
+
+  /** the estimate is the odometry pose turned by this and then moved by the shift */
+  private static final double DRIFT_ANGLE = 0.1;
+  private static final double DRIFT_X = 0.3;
+  private static final double DRIFT_Y = -0.5;
+
+  private final PoseHistory history = new PoseHistory(64);
+  private final double[] odometry = new double[3];
+  private final double[] estimate = new double[3];
+  private final double[] reference = new double[PoseHistory.SIZE];
+  private double time = 0;
+
+  /** where the estimate says a pose odometry measured really is */
+  private static void drift(double[] pose, double[] out) {
+    final double cos = Math.cos(DRIFT_ANGLE);
+    final double sin = Math.sin(DRIFT_ANGLE);
+    final double x = pose[0] * cos - pose[1] * sin + DRIFT_X;
+    final double y = pose[0] * sin + pose[1] * cos + DRIFT_Y;
+    out[0] = x;
+    out[1] = y;
+    out[2] = GeometryUtils.wrap(pose[2] + DRIFT_ANGLE);
+  }
+
+  /** drives forward while turning, for a second */
+  private void drive() {
+    for (int n = 0; n < 50; n++) {
+      time += DT;
+      GeometryUtils.exp(odometry, SPEED * DT, 0, 0.5 * DT, odometry);
+      history.add(time, odometry[0], odometry[1], odometry[2], SPEED, 0, 0.5);
+    }
+    drift(odometry, estimate);
+  }
+
+  /** the reference DriveSub.updateVision() checks a camera pose against */
+  private boolean referenceAt(double frameTime) {
+    if (!history.get(frameTime, reference)) {
+      return false;
+    }
+    VisionFilter.alignToEstimate(reference, odometry, estimate);
+    return true;
+  }
+
+  @Test
+  void alignedPoseFollowsTheEstimate() {
+    final Random random = new Random(4729);
+    final double[] past = new double[3];
+    final double[] expected = new double[3];
+    for (int n = 0; n < 1000; n++) {
+      odometry[0] = random.nextGaussian() * 5;
+      odometry[1] = random.nextGaussian() * 5;
+      odometry[2] = GeometryUtils.wrap(random.nextGaussian() * 3);
+      drift(odometry, estimate);
+      past[0] = odometry[0] + random.nextGaussian();
+      past[1] = odometry[1] + random.nextGaussian();
+      past[2] = GeometryUtils.wrap(odometry[2] + random.nextGaussian());
+      drift(past, expected);
+
+      VisionFilter.alignToEstimate(past, odometry, estimate);
+      assertEquals(expected[0], past[0], EPSILON);
+      assertEquals(expected[1], past[1], EPSILON);
+      assertEquals(0, GeometryUtils.difference(expected[2], past[2]), EPSILON);
+    }
+  }
+
+  @Test
+  void acceptsAFrameCheckedAgainstThePoseWhenItWasTaken() {
+    drive();
+    final double frameTime = time - LATENCY;
+    // the camera sees the robot where the estimate says it was at the frame
+    final double[] camera = new double[PoseHistory.SIZE];
+    history.get(frameTime, camera);
+    drift(camera, camera);
+    camera[0] += 0.2;
+    camera[1] -= 0.2;
+
+    assertTrue(referenceAt(frameTime));
+    assertTrue(VisionFilter.isNearReference(camera[0], camera[1], reference));
+    // the robot has moved on by more than the limit since, so checking
+    // against the current estimate would throw a good frame away
+    assertFalse(VisionFilter.isNearReference(camera[0], camera[1], estimate));
+  }
+
+  @Test
+  void rejectsAFrameFarFromTheReference() {
+    drive();
+    final double frameTime = time - LATENCY;
+    assertTrue(referenceAt(frameTime));
+    final double direction = 0.7;
+    final double inside = VisionConstants.MAX_POSE_ERROR - 0.01;
+    final double outside = VisionConstants.MAX_POSE_ERROR + 0.01;
+    assertTrue(VisionFilter.isNearReference(reference[0] + inside * Math.cos(direction),
+        reference[1] + inside * Math.sin(direction), reference));
+    assertFalse(VisionFilter.isNearReference(reference[0] + outside * Math.cos(direction),
+        reference[1] + outside * Math.sin(direction), reference));
+  }
+
+  @Test
+  void framesOlderThanTheHistoryHaveNoReference() {
+    drive();
+    assertFalse(referenceAt(time - 10));
+  }
+
+  @Test
+  void stdDevsGrowWithTheSquareOfTheDistance() {
+    assertEquals(1, VisionFilter.stdDevScale(0), EPSILON);
+    assertEquals(2, VisionFilter.stdDevScale(Math.sqrt(VisionConstants.STD_DEV_DISTANCE_SCALE)), EPSILON);
+    assertEquals(5, VisionFilter.stdDevScale(2 * Math.sqrt(VisionConstants.STD_DEV_DISTANCE_SCALE)), EPSILON);
+    double last = 0;
+    for (double distance = 0; distance < 10; distance += 0.1) {
+      final double scale = VisionFilter.stdDevScale(distance);
+      assertTrue(scale > last, "scale at " + distance);
+      last = scale;
+    }
+  }
+
+  @Test
+  void singleTagPosesHaveToBeCloseAndUnambiguous() {
+    final double close = VisionConstants.MAX_SINGLE_TAG_DISTANCE - 0.5;
+    final double far = VisionConstants.MAX_SINGLE_TAG_DISTANCE + 0.5;
+    final double clear = VisionConstants.MAX_AMBIGUITY / 2;
+    final double ambiguous = VisionConstants.MAX_AMBIGUITY + 0.1;
+    assertTrue(VisionFilter.isTrusted(false, close, clear));
+    assertFalse(VisionFilter.isTrusted(false, far, clear));
+    assertFalse(VisionFilter.isTrusted(false, close, ambiguous));
+    // several tags solved together are used from any distance
+    assertTrue(VisionFilter.isTrusted(true, far, ambiguous));
+  }
+}
@@ -0,0 +1,110 @@
+package frc.robot.utils.logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import frc.robot.constants.LoggerConstants;
+
+/** {@link BinaryLogWriter} output read back through {@link LogReader}. */
+class BinaryLogTest {
+  private static final String[] COLUMNS = { "Time", "Pos", "Vel", "\u00c5ngle" };
+
+  @TempDir
+  File folder;
+
+  private File write(int rows) throws IOException {
+    File file = new File(folder, "test" + LogFormat.BINARY_EXTENSION);
+    Files.createFile(file.toPath());
+    try (BinaryLogWriter writer = new BinaryLogWriter(file)) {
+      writer.writeHeader(COLUMNS, 1234567);
+      for (int i = 0; i < rows; i++) {
+        writer.writeRow(row(i));
+      }
+    }
+    return file;
+  }
+
+  private static double[] row(int i) {
+    return new double[] { i * 0.02, i, i == 3 ? Double.NaN : -i * 0.5, Double.MAX_VALUE / (i + 1) };
+  }
+
+  @Test
+  void headerRoundTrips() throws IOException {
+    try (LogReader reader = new LogReader(write(0))) {
+      assertArrayEquals(COLUMNS, reader.getColumns());
+      assertEquals(1234567, reader.getEpochAnchorMicros());
+      assertEquals(-1, reader.getCommitted());
+      assertFalse(reader.hasChecksums());
+      assertEquals(LogFormat.headerSize(COLUMNS), reader.getHeaderSize());
+      assertFalse(reader.next(new double[COLUMNS.length]));
+    }
+  }
+
+  @Test
+  void rowsRoundTrip() throws IOException {
+    // enough rows to go through the write and read buffers several times
+    final int rows = 4 * LoggerConstants.READ_BUFFER_BYTES / LogFormat.frameSize(COLUMNS.length);
+    try (LogReader reader = new LogReader(write(rows))) {
+      double[] row = new double[COLUMNS.length];
+      for (int i = 0; i < rows; i++) {
+        assertTrue(reader.next(row), "row " + i);
+        assertArrayEquals(row(i), row);
+      }
+      assertFalse(reader.next(row));
+    }
+  }
+
+  @Test
+  void seekReturnsToAFrame() throws IOException {
+    try (LogReader reader = new LogReader(write(10))) {
+      double[] row = new double[COLUMNS.length];
+      reader.next(row);
+      reader.next(row);
+      final long third = reader.position();
+      reader.next(row);
+      reader.next(row);
+      reader.seek(third);
+      assertTrue(reader.next(row));
+      assertArrayEquals(row(2), row);
+    }
+  }
+
+  @Test
+  void partialFrameEndsTheLog() throws IOException {
+    File file = write(5);
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+      channel.truncate(file.length() - 3);
+    }
+    try (LogReader reader = new LogReader(file)) {
+      double[] row = new double[COLUMNS.length];
+      int count = 0;
+      while (reader.next(row)) {
+        count++;
+      }
+      assertEquals(4, count);
+    }
+  }
+
+  @Test
+  void rejectsFilesThatAreNotLogs() throws IOException {
+    File file = new File(folder, "other" + LogFormat.BINARY_EXTENSION);
+    Files.write(file.toPath(), new byte[64]);
+    assertThrows(IOException.class, () -> new LogReader(file));
+
+    File empty = new File(folder, "empty" + LogFormat.BINARY_EXTENSION);
+    Files.createFile(empty.toPath());
+    assertThrows(IOException.class, () -> new LogReader(empty));
+  }
+}
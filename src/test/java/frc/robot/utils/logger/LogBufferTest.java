@@ -0,0 +1,112 @@
+package frc.robot.utils.logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LogBufferTest {
+  @Test
+  void capacityRoundsUpToPowerOfTwo() {
+    assertEquals(8, new LogBuffer(5, 3).getCapacity());
+    assertEquals(8, new LogBuffer(8, 3).getCapacity());
+    assertEquals(1, new LogBuffer(1, 3).getCapacity());
+    assertThrows(IllegalArgumentException.class, () -> new LogBuffer(0, 3));
+  }
+
+  @Test
+  void rowsComeOutInOrderAcrossWrapAround() {
+    LogBuffer buffer = new LogBuffer(4, 3);
+    double[] row = new double[3];
+    // offset the ring so every later row lands past the end of the array at some point
+    for (int i = 0; i < 3; i++) {
+      assertTrue(buffer.offer(i, new double[] { i, -i }));
+      assertTrue(buffer.poll(row));
+    }
+    for (int i = 3; i < 7; i++) {
+      assertTrue(buffer.offer(i, new double[] { i, -i }));
+    }
+    assertEquals(4, buffer.size());
+    for (int i = 3; i < 7; i++) {
+      assertTrue(buffer.poll(row));
+      assertArrayEquals(new double[] { i, i, -i }, row);
+    }
+    assertFalse(buffer.poll(row));
+    assertTrue(buffer.isEmpty());
+  }
+
+  @Test
+  void fullRingDropsAndCounts() {
+    LogBuffer buffer = new LogBuffer(2, 2);
+    assertTrue(buffer.offer(0, new double[] { 10 }));
+    assertTrue(buffer.offer(1, new double[] { 11 }));
+    assertFalse(buffer.offer(2, new double[] { 12 }));
+    assertFalse(buffer.offer(3, new double[] { 13 }));
+    assertEquals(2, buffer.getDropped());
+
+    // the rows already queued are kept, the dropped ones never appear
+    double[] row = new double[2];
+    assertTrue(buffer.poll(row));
+    assertArrayEquals(new double[] { 0, 10 }, row);
+    assertTrue(buffer.offer(4, new double[] { 14 }));
+    assertTrue(buffer.poll(row));
+    assertArrayEquals(new double[] { 1, 11 }, row);
+    assertTrue(buffer.poll(row));
+    assertArrayEquals(new double[] { 4, 14 }, row);
+    assertEquals(2, buffer.getDropped());
+  }
+
+  @Test
+  void shortRowsAreFilledWithNaNAndLongRowsCut() {
+    LogBuffer buffer = new LogBuffer(2, 4);
+    double[] row = new double[4];
+    buffer.offer(1, new double[] { 2 });
+    buffer.poll(row);
+    assertArrayEquals(new double[] { 1, 2, Double.NaN, Double.NaN }, row);
+
+    buffer.offer(1, new double[] { 2, 3, 4, 5, 6 });
+    buffer.poll(row);
+    assertArrayEquals(new double[] { 1, 2, 3, 4 }, row);
+  }
+
+  @Test
+  void clearDiscardsQueuedRows() {
+    LogBuffer buffer = new LogBuffer(4, 2);
+    buffer.offer(0, new double[] { 0 });
+    buffer.offer(1, new double[] { 1 });
+    buffer.clear();
+    assertTrue(buffer.isEmpty());
+    assertFalse(buffer.poll(new double[2]));
+  }
+
+  @Test
+  void consumerThreadSeesEveryRowInOrder() throws InterruptedException {
+    final int rows = 200_000;
+    LogBuffer buffer = new LogBuffer(64, 2);
+    Thread producer = new Thread(() -> {
+      double[] values = new double[1];
+      for (int i = 0; i < rows; i++) {
+        values[0] = i * 2;
+        while (!buffer.offer(i, values)) {
+          Thread.onSpinWait();
+        }
+      }
+    });
+    producer.start();
+
+    double[] row = new double[2];
+    int expected = 0;
+    while (expected < rows) {
+      if (buffer.poll(row)) {
+        assertEquals(expected, row[0]);
+        assertEquals(expected * 2, row[1]);
+        expected++;
+      }
+    }
+    producer.join();
+    assertTrue(buffer.isEmpty());
+  }
+}
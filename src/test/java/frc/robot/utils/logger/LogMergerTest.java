@@ -0,0 +1,112 @@
+package frc.robot.utils.logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LogMergerTest {
+  private static final double NaN = Double.NaN;
+
+  @TempDir
+  File folder;
+
+  private void write(String name, long epochAnchorMicros, double[]... rows) throws IOException {
+    File file = new File(folder, name + LogFormat.BINARY_EXTENSION);
+    Files.createFile(file.toPath());
+    try (BinaryLogWriter writer = new BinaryLogWriter(file)) {
+      writer.writeHeader(new String[] { "Time", "V" }, epochAnchorMicros);
+      for (double[] row : rows) {
+        writer.writeRow(row);
+      }
+    }
+  }
+
+  /** channel a every second, channel b with a repeated timestamp and a second segment */
+  private void writeSession(long anchorB) throws IOException {
+    write("a", 0, new double[] { 0, 10 }, new double[] { 1, 11 }, new double[] { 2, 12 }, new double[] { 3, 13 });
+    write("b", anchorB, new double[] { 1, 20 }, new double[] { 1, 21 }, new double[] { 2.5, 22 });
+    write("b.seg1", anchorB, new double[] { 3, 23 });
+  }
+
+  private List<double[]> merge(double period) throws IOException {
+    File out = new File(folder, "merged" + LogFormat.BINARY_EXTENSION);
+    final long count = LogMerger.merge(folder, out, period);
+
+    List<double[]> rows = new ArrayList<>();
+    try (LogReader reader = new LogReader(out)) {
+      assertArrayEquals(new String[] { "Time", "a/V", "b/V" }, reader.getColumns());
+      double[] row = new double[3];
+      while (reader.next(row)) {
+        rows.add(row.clone());
+      }
+    }
+    assertEquals(count, rows.size());
+    return rows;
+  }
+
+  @Test
+  void equalTimestampsMergeIntoOneRow() throws IOException {
+    writeSession(0);
+    List<double[]> rows = merge(0);
+    assertEquals(5, rows.size());
+    assertArrayEquals(new double[] { 0, 10, NaN }, rows.get(0));
+    // both of b's rows at 1 s and a's row at 1 s give one row, the last of b's wins
+    assertArrayEquals(new double[] { 1, 11, 21 }, rows.get(1));
+    assertArrayEquals(new double[] { 2, 12, 21 }, rows.get(2));
+    assertArrayEquals(new double[] { 2.5, 12, 22 }, rows.get(3));
+    // the second segment carries straight on from the first
+    assertArrayEquals(new double[] { 3, 13, 23 }, rows.get(4));
+  }
+
+  @Test
+  void rowTimesNeverGoBackwards() throws IOException {
+    writeSession(0);
+    double last = Double.NEGATIVE_INFINITY;
+    for (double[] row : merge(0)) {
+      assertTrue(row[0] > last);
+      last = row[0];
+    }
+  }
+
+  @Test
+  void channelsAreLinedUpByEpochAnchor() throws IOException {
+    // b's clock started 0.5 s after a's, so its times are 0.5 s later on a's clock
+    writeSession(500_000);
+    List<double[]> rows = merge(0);
+    assertArrayEquals(new double[] { 1, 11, NaN }, rows.get(1));
+    assertArrayEquals(new double[] { 1.5, 11, 21 }, rows.get(2));
+    assertArrayEquals(new double[] { 3, 13, 22 }, rows.get(rows.size() - 2));
+    assertArrayEquals(new double[] { 3.5, 13, 23 }, rows.get(rows.size() - 1));
+  }
+
+  @Test
+  void resamplesToFixedPeriod() throws IOException {
+    writeSession(0);
+    List<double[]> rows = merge(1);
+    assertEquals(4, rows.size());
+    assertArrayEquals(new double[] { 0, 10, NaN }, rows.get(0));
+    assertArrayEquals(new double[] { 1, 11, 21 }, rows.get(1));
+    assertArrayEquals(new double[] { 2, 12, 21 }, rows.get(2));
+    assertArrayEquals(new double[] { 3, 13, 23 }, rows.get(3));
+  }
+
+  @Test
+  void csvOutputHasOneLinePerRow() throws IOException {
+    writeSession(0);
+    File out = new File(folder, "merged" + LogFormat.CSV_EXTENSION);
+    assertEquals(5, LogMerger.merge(folder, out, 0));
+    List<String> lines = Files.readAllLines(out.toPath());
+    assertEquals(6, lines.size());
+    assertEquals("Time, a/V, b/V", lines.get(0));
+    assertEquals("1.0, 11.0, 21.0", lines.get(2));
+  }
+}
@@ -0,0 +1,131 @@
+package frc.robot.utils.logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import frc.robot.constants.LoggerConstants;
+
+/** {@link LogIndex} and {@link LogQuery} on windows that start and end on index entries. */
+class LogQueryTest {
+  private static final String[] COLUMNS = { "Time", "Pos", "Vel" };
+  private static final int INTERVAL = LoggerConstants.INDEX_INTERVAL;
+  /** three full index intervals and one frame in each segment */
+  private static final int SEGMENT_ROWS = 3 * INTERVAL + 1;
+
+  @TempDir
+  File folder;
+
+  /** frame i is at time i with Pos = 2i and Vel = -i, split over two segments */
+  @BeforeEach
+  void writeChannel() throws IOException {
+    write(new File(folder, "swerve-0" + LogFormat.BINARY_EXTENSION), 0);
+    write(new File(folder, "swerve-0.seg1" + LogFormat.BINARY_EXTENSION), SEGMENT_ROWS);
+  }
+
+  private static void write(File file, int first) throws IOException {
+    Files.createFile(file.toPath());
+    try (BinaryLogWriter writer = new BinaryLogWriter(file)) {
+      writer.writeHeader(COLUMNS, 0);
+      for (int i = first; i < first + SEGMENT_ROWS; i++) {
+        writer.writeRow(new double[] { i, 2 * i, -i });
+      }
+    }
+  }
+
+  /** checks a query returned every frame from first to last */
+  private static void assertFrames(int first, int last, double[][] result) {
+    assertEquals(last - first + 1, result[0].length, "frames");
+    for (int i = 0; i < result[0].length; i++) {
+      assertEquals(first + i, result[0][i]);
+      assertEquals(2 * (first + i), result[1][i]);
+    }
+  }
+
+  @Test
+  void indexKeepsEveryIntervalthFrame() {
+    LogIndex index = LogIndex.load(new File(folder, "swerve-0" + LogFormat.BINARY_EXTENSION));
+    assertEquals(4, index.size());
+    assertEquals(0, index.firstTime());
+
+    final long header = LogFormat.headerSize(COLUMNS);
+    final long frame = LogFormat.frameSize(COLUMNS.length);
+    assertEquals(-1, index.floorOffset(-0.5));
+    assertEquals(header, index.floorOffset(0));
+    assertEquals(header, index.floorOffset(INTERVAL - 0.5));
+    assertEquals(header + INTERVAL * frame, index.floorOffset(INTERVAL));
+    assertEquals(header + 3 * INTERVAL * frame, index.floorOffset(1e9));
+  }
+
+  @Test
+  void estimateCountsIndexEntriesInTheWindow() {
+    LogIndex index = LogIndex.load(new File(folder, "swerve-0" + LogFormat.BINARY_EXTENSION));
+    // entries at 0, INTERVAL, 2 INTERVAL and 3 INTERVAL, ends included
+    assertEquals(5 * INTERVAL, index.estimateFrames(0, 3 * INTERVAL));
+    assertEquals(3 * INTERVAL, index.estimateFrames(INTERVAL, 2 * INTERVAL));
+    assertEquals(2 * INTERVAL, index.estimateFrames(INTERVAL - 0.5, 2 * INTERVAL - 0.5));
+    assertEquals(INTERVAL, index.estimateFrames(INTERVAL + 0.5, 2 * INTERVAL - 0.5));
+    assertEquals(INTERVAL, index.estimateFrames(-10, -1));
+    assertEquals(INTERVAL, index.estimateFrames(2 * INTERVAL, INTERVAL));
+  }
+
+  @Test
+  void windowOnIndexEntries() throws IOException {
+    LogQuery query = new LogQuery(folder, "swerve-0");
+    assertFrames(INTERVAL, 2 * INTERVAL, query.range(INTERVAL, 2 * INTERVAL, "Pos"));
+  }
+
+  @Test
+  void windowJustEitherSideOfIndexEntries() throws IOException {
+    LogQuery query = new LogQuery(folder, "swerve-0");
+    assertFrames(INTERVAL, 2 * INTERVAL - 1, query.range(INTERVAL - 0.5, 2 * INTERVAL - 0.5, "Pos"));
+    assertFrames(INTERVAL + 1, 2 * INTERVAL, query.range(INTERVAL + 0.5, 2 * INTERVAL + 0.5, "Pos"));
+  }
+
+  @Test
+  void singleFrameWindows() throws IOException {
+    LogQuery query = new LogQuery(folder, "swerve-0");
+    assertFrames(INTERVAL, INTERVAL, query.range(INTERVAL, INTERVAL, "Pos"));
+    assertFrames(INTERVAL - 1, INTERVAL - 1, query.range(INTERVAL - 1, INTERVAL - 1, "Pos"));
+    // the last frame of the first segment and the first frame of the second
+    assertFrames(SEGMENT_ROWS - 1, SEGMENT_ROWS - 1, query.range(SEGMENT_ROWS - 1, SEGMENT_ROWS - 1, "Pos"));
+    assertFrames(SEGMENT_ROWS, SEGMENT_ROWS, query.range(SEGMENT_ROWS, SEGMENT_ROWS, "Pos"));
+  }
+
+  @Test
+  void windowAcrossSegments() throws IOException {
+    LogQuery query = new LogQuery(folder, "swerve-0");
+    assertFrames(SEGMENT_ROWS - 10, SEGMENT_ROWS + 10, query.range(SEGMENT_ROWS - 10, SEGMENT_ROWS + 10, "Pos"));
+    assertFrames(0, 2 * SEGMENT_ROWS - 1, query.range(-100, 1e9, "Pos"));
+  }
+
+  @Test
+  void windowOutsideTheLog() throws IOException {
+    LogQuery query = new LogQuery(folder, "swerve-0");
+    assertEquals(0, query.range(-10, -1, "Pos")[0].length);
+    assertEquals(0, query.range(1e6, 1e7, "Pos")[0].length);
+    assertEquals(0, query.range(INTERVAL + 0.2, INTERVAL + 0.8, "Pos")[0].length);
+  }
+
+  @Test
+  void selectsColumnsInTheOrderAsked() throws IOException {
+    double[][] result = new LogQuery(folder, "swerve-0").range(5, 6, "Vel", "Pos");
+    assertEquals(3, result.length);
+    assertEquals(-5, result[1][0]);
+    assertEquals(10, result[2][0]);
+    assertThrows(IllegalArgumentException.class, () -> new LogQuery(folder, "swerve-0").range(0, 1, "Nope"));
+  }
+
+  @Test
+  void missingIndexScansFromTheStart() throws IOException {
+    LogIndex.indexFile(new File(folder, "swerve-0" + LogFormat.BINARY_EXTENSION)).delete();
+    assertFrames(INTERVAL, 2 * INTERVAL, new LogQuery(folder, "swerve-0").range(INTERVAL, 2 * INTERVAL, "Pos"));
+  }
+}
@@ -0,0 +1,176 @@
+package frc.robot.utils.logger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import frc.robot.constants.LoggerConstants;
+
+/**
+ * {@link LogRecovery} on segment logs from {@link MappedLogWriter} that were
+ * cut off the way a brownout leaves them.
+ */
+class LogRecoveryTest {
+  private static final String[] COLUMNS = { "Time", "A", "B" };
+  private static final int ROWS = 20;
+
+  @TempDir
+  File folder;
+
+  private File file;
+  private int headerSize;
+  private int frameSize;
+
+  /** writes a cleanly closed segment */
+  @BeforeEach
+  void writeSegment() throws IOException {
+    file = new File(folder, "test" + LogFormat.BINARY_EXTENSION);
+    Files.createFile(file.toPath());
+    MappedLogWriter writer = new MappedLogWriter(file, COLUMNS.length);
+    writer.writeHeader(COLUMNS, 0);
+    for (int i = 0; i < ROWS; i++) {
+      writer.writeRow(row(i));
+    }
+    writer.close();
+
+    headerSize = LogFormat.headerSize(COLUMNS);
+    frameSize = LogFormat.frameSize(COLUMNS.length) + Integer.BYTES;
+    assertEquals(headerSize + ROWS * frameSize, file.length());
+  }
+
+  private static double[] row(int i) {
+    return new double[] { i * 0.02, i, -i };
+  }
+
+  /**
+   * Turns the segment back into one that was never closed: the watermark only
+   * covers the header and the file is still its preallocated size.
+   */
+  private void uncommit() throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+      ByteBuffer committed = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      committed.putLong(headerSize).flip();
+      channel.write(committed, LogFormat.COMMITTED_OFFSET);
+    }
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(LoggerConstants.SEGMENT_BYTES);
+    }
+  }
+
+  private int readRows() throws IOException {
+    try (LogReader reader = new LogReader(file)) {
+      double[] row = new double[COLUMNS.length];
+      int count = 0;
+      while (reader.next(row)) {
+        assertArrayEquals(row(count), row);
+        count++;
+      }
+      return count;
+    }
+  }
+
+  private long committed() throws IOException {
+    try (LogReader reader = new LogReader(file)) {
+      return reader.getCommitted();
+    }
+  }
+
+  @Test
+  void scanToEndStopsAfterTheLastFrame() throws IOException {
+    try (LogReader reader = new LogReader(file)) {
+      assertEquals(headerSize + ROWS * frameSize, reader.scanToEnd());
+      assertFalse(reader.next(new double[COLUMNS.length]));
+      // and from part way through
+      reader.seek(headerSize + 5 * frameSize);
+      assertEquals(headerSize + ROWS * frameSize, reader.scanToEnd());
+    }
+  }
+
+  @Test
+  void cleanSegmentIsLeftAlone() throws IOException {
+    final long length = file.length();
+    assertEquals(-1, LogRecovery.recover(file));
+    assertEquals(length, file.length());
+  }
+
+  @Test
+  void uncommittedFramesAreKeptAndTheRestTrimmed() throws IOException {
+    uncommit();
+    final long end = headerSize + ROWS * frameSize;
+    assertEquals(end, LogRecovery.recover(file));
+    assertEquals(end, file.length());
+    assertEquals(end, committed());
+    assertEquals(ROWS, readRows());
+    // recovered files are clean
+    assertEquals(-1, LogRecovery.recover(file));
+  }
+
+  @Test
+  void truncatedFrameIsDropped() throws IOException {
+    uncommit();
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+      channel.truncate(headerSize + 12 * frameSize + 5);
+    }
+    assertEquals(headerSize + 12 * frameSize, LogRecovery.recover(file));
+    assertEquals(12, readRows());
+  }
+
+  @Test
+  void corruptFrameEndsTheLog() throws IOException {
+    uncommit();
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      // flip one bit in the values of frame 7, its checksum no longer matches
+      final long offset = headerSize + 7 * frameSize + 3;
+      ByteBuffer value = ByteBuffer.allocate(1);
+      channel.read(value, offset);
+      value.put(0, (byte) (value.get(0) ^ 0x10)).rewind();
+      channel.write(value, offset);
+    }
+    assertEquals(headerSize + 7 * frameSize, LogRecovery.recover(file));
+    assertEquals(7, readRows());
+  }
+
+  @Test
+  void framesBeforeTheWatermarkAreNotRechecked() throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+      ByteBuffer committed = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      committed.putLong(headerSize + 10 * frameSize).flip();
+      channel.write(committed, LogFormat.COMMITTED_OFFSET);
+      channel.truncate(headerSize + 15 * frameSize + 1);
+    }
+    assertEquals(headerSize + 15 * frameSize, LogRecovery.recover(file));
+    assertEquals(15, readRows());
+  }
+
+  @Test
+  void recoverAllSkipsTheCurrentSession() throws IOException {
+    File drive = new File(folder, "drive");
+    File old = new File(drive, "LogFile_(0)");
+    File current = new File(drive, "LogFile_(1)");
+    assertTrue(old.mkdirs() && current.mkdirs());
+    uncommit();
+    final long length = file.length();
+    File oldLog = new File(old, file.getName());
+    File currentLog = new File(current, file.getName());
+    Files.copy(file.toPath(), oldLog.toPath());
+    Files.copy(file.toPath(), currentLog.toPath());
+
+    LogRecovery.recoverAll(drive, current);
+    assertEquals(headerSize + ROWS * frameSize, oldLog.length());
+    assertEquals(length, currentLog.length());
+  }
+}